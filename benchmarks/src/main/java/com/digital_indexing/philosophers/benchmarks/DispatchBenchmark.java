@@ -0,0 +1,107 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.EventObject;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.digital_indexing.philosophers.enums.DeliveryMode;
+import com.digital_indexing.philosophers.enums.OverflowPolicy;
+import com.digital_indexing.philosophers.enums.StatePhil;
+import com.digital_indexing.philosophers.listeners.EventBus;
+import com.digital_indexing.philosophers.listeners.EventSubscriber;
+import com.digital_indexing.philosophers.listeners.PhilChangedEvent;
+import com.digital_indexing.philosophers.listeners.PhilNumberSetEvent;
+import com.digital_indexing.philosophers.system.ModelPhil;
+
+/**
+ * Cost of a state change of the model for the publishing philosopher, with a listener that does nothing.<br>
+ * <p>
+ * - NONE: no subscriber, only the state store is written<br>
+ * - CALLER: the listener runs in the publishing thread<br>
+ * - DEDICATED, EDT: the event is queued (and coalesced) for the thread of the subscription, like the listener of the view
+ *
+ * @author mabo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DispatchBenchmark {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private static final int NR_OF_PHILS = 12;
+	private static final int LISTENER_CAPACITY = 1024;
+	private static final StatePhil[] STATES = StatePhil.values();
+
+	@Param({ "NONE", "CALLER", "DEDICATED", "EDT" })
+	public String delivery;
+
+	private ModelPhil model;
+	private EventBus.Subscription subscription;
+	private int next;
+
+
+//	---------------------------- SETUP ----------------------------------
+
+	@Setup
+	public void setUp()
+	{
+		model = ModelPhil.getSingleInstance();
+		model.setModelListener(null);
+		model.setTimeListener(null);
+		model.nrOfPhilosophersSet(new PhilNumberSetEvent(this, NR_OF_PHILS));
+		DeliveryMode mode = DeliveryMode.getMode(delivery);
+		if (mode != null) {
+			subscription = model.getEventBus().subscribe(PhilChangedEvent.class, new EventSubscriber() {
+				@Override
+				public void eventPublished(EventObject e) {
+				}
+			}, mode, OverflowPolicy.COALESCE, LISTENER_CAPACITY);
+		}
+	}
+
+
+	@TearDown
+	public void tearDown() {
+		if (subscription != null)
+			subscription.cancel();
+	}
+
+
+//	---------------------------- BENCHMARKS ----------------------------------
+
+	@Benchmark
+	public void setPhilState() throws InvocationTargetException, InterruptedException
+	{
+		int i = next++;
+		model.setPhilState(i % NR_OF_PHILS, STATES[i % STATES.length]);
+	}
+
+}
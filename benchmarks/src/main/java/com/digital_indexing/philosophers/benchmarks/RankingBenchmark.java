@@ -0,0 +1,102 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.digital_indexing.philosophers.auxiliary.RankingIndex;
+
+/**
+ * Moving a philosopher in the ranking after philosophizing: TimeDataTree against RankingIndex.<br>
+ * <p>
+ * Both structures get the same sequence of philosophers and time deltas (uniform up to the max. action time of 60000 ms).
+ * The tables are filled with random times before, so every change moves the philosopher through a populated ranking.
+ *
+ * @author mabo
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RankingBenchmark {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private static final int NR_OF_CHANGES = 4096;
+	private static final int MAX_DELTA = 60000;
+
+	@Param({ "12", "1000", "100000" })
+	public int nrOfPhils;
+
+	private TimeDataTree tree;
+	private RankingIndex index;
+	private int[] philNrs;
+	private double[] deltas;
+	private int next;
+
+
+//	---------------------------- SETUP ----------------------------------
+
+	@Setup
+	public void setUp()
+	{
+		SplittableRandom random = new SplittableRandom(42);
+		tree = new TimeDataTree(nrOfPhils);
+		index = new RankingIndex(nrOfPhils);
+		for (int i = 0; i < nrOfPhils; i++) {
+			double delta = random.nextInt(MAX_DELTA * 100);
+			tree.add(new TimeData(i, 0.0));
+			tree.changeTimeValue(i, delta);
+			index.changeTimeValue(i, delta);
+		}
+		philNrs = new int[NR_OF_CHANGES];
+		deltas = new double[NR_OF_CHANGES];
+		for (int i = 0; i < NR_OF_CHANGES; i++) {
+			philNrs[i] = random.nextInt(nrOfPhils);
+			deltas[i] = random.nextInt(MAX_DELTA);
+		}
+	}
+
+
+//	---------------------------- BENCHMARKS ----------------------------------
+
+	@Benchmark
+	public double timeDataTree()
+	{
+		int i = next++ & (NR_OF_CHANGES - 1);
+		return tree.changeTimeValue(philNrs[i], deltas[i]);
+	}
+
+
+	@Benchmark
+	public double rankingIndex()
+	{
+		int i = next++ & (NR_OF_CHANGES - 1);
+		return index.changeTimeValue(philNrs[i], deltas[i]);
+	}
+
+}
@@ -0,0 +1,121 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import com.digital_indexing.philosophers.auxiliary.SimulationConfig;
+import com.digital_indexing.philosophers.enums.StickMode;
+import com.digital_indexing.philosophers.listeners.PhilNumberSetEvent;
+import com.digital_indexing.philosophers.system.AtomicStickArbiter;
+import com.digital_indexing.philosophers.system.ModelPhil;
+import com.digital_indexing.philosophers.system.MonitorStickArbiter;
+import com.digital_indexing.philosophers.system.OrderedStrategy;
+import com.digital_indexing.philosophers.system.StickArbiter;
+import com.digital_indexing.philosophers.system.Supervisor;
+
+/**
+ * Taking and putting both sticks of a seat under contention.<br>
+ * <p>
+ * Each benchmark thread is one philosopher of a table with as many seats as threads, so every stick is contended by its two neighbors.
+ * The sticks are taken in global order (OrderedStrategy) so the table cannot deadlock. Vary the contention with -t 2, -t 4, ... -t N.<br>
+ * The table has at least MIN_SEATS seats: with -t 1 the only philosopher would be its own neighbor and wait for the stick it holds. 
+ * So -t 1 measures the sticks without contention.<br>
+ * The model gets no listeners, the measured time includes the update of the state store like in the running table.
+ *
+ * @author mabo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+public class StickBenchmark {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	static final int MIN_SEATS = 2;
+
+	@Param({ "MONITOR", "ATOMIC" })
+	public String stickMode;
+
+	private OrderedStrategy strategy;
+
+
+//	---------------------------- SETUP ----------------------------------
+
+	@Setup
+	public void setUp(BenchmarkParams params)
+	{
+		int nrOfSeats = nrOfSeats(params.getThreads());
+		ModelPhil model = ModelPhil.getSingleInstance();
+		model.setModelListener(null);
+		model.setTimeListener(null);
+		model.nrOfPhilosophersSet(new PhilNumberSetEvent(this, nrOfSeats));
+		StickArbiter sticks;
+		if (StickMode.getMode(stickMode) == StickMode.ATOMIC)
+			sticks = new AtomicStickArbiter(nrOfSeats);
+		else
+			sticks = new MonitorStickArbiter(new Supervisor(SimulationConfig.fromSystemProperties()));
+		strategy = new OrderedStrategy(sticks);
+	}
+
+
+	@State(Scope.Thread)
+	public static class Seat {
+
+		int philNr, leftAreaNr, rightAreaNr;
+
+		@Setup
+		public void setUp(ThreadParams params)
+		{
+			int nrOfSeats = nrOfSeats(params.getThreadCount());
+			philNr = params.getThreadIndex();
+			leftAreaNr = philNr - 1 < 0 ? nrOfSeats - 1 : philNr - 1;
+			rightAreaNr = philNr;
+		}
+	}
+
+
+	static int nrOfSeats(int threads) {
+		return Math.max(MIN_SEATS, threads);
+	}
+
+
+//	---------------------------- BENCHMARKS ----------------------------------
+
+	@Benchmark
+	public void takeAndPutSticks(Seat seat) throws InterruptedException, InvocationTargetException
+	{
+		strategy.takeSticks(seat.philNr, seat.leftAreaNr, seat.rightAreaNr);
+		strategy.putSticks(seat.philNr, seat.leftAreaNr, seat.rightAreaNr);
+	}
+
+}
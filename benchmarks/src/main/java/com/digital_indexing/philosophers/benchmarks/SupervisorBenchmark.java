@@ -0,0 +1,102 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import com.digital_indexing.philosophers.auxiliary.SimulationConfig;
+import com.digital_indexing.philosophers.enums.AdmissionMode;
+import com.digital_indexing.philosophers.listeners.PhilNumberSetEvent;
+import com.digital_indexing.philosophers.system.ModelPhil;
+import com.digital_indexing.philosophers.system.Supervisor;
+
+/**
+ * Admission of the supervisor: allowToSit followed by allowToLeave.<br>
+ * <p>
+ * Each benchmark thread is one philosopher. The table has threads + freeSeats seats, the supervisor admits one less:<br>
+ * - freeSeats 0: one philosopher always waits for a seat (like the running table)<br>
+ * - freeSeats 1: every philosopher gets a seat at once, only the cost of the admission itself is measured
+ *
+ * @author mabo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+public class SupervisorBenchmark {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	@Param({ "STRIPED", "FAIR" })
+	public String admissionMode;
+
+	@Param({ "0", "1" })
+	public int freeSeats;
+
+	private Supervisor supervisor;
+
+
+//	---------------------------- SETUP ----------------------------------
+
+	@Setup
+	public void setUp(BenchmarkParams params)
+	{
+		ModelPhil model = ModelPhil.getSingleInstance();
+		model.setModelListener(null);
+		model.setTimeListener(null);
+		model.nrOfPhilosophersSet(new PhilNumberSetEvent(this, params.getThreads() + freeSeats));
+		SimulationConfig config = SimulationConfig.fromSystemProperties();
+		config.admissionMode = AdmissionMode.getMode(admissionMode);
+		supervisor = new Supervisor(config);
+	}
+
+
+	@State(Scope.Thread)
+	public static class Seat {
+
+		int philNr;
+
+		@Setup
+		public void setUp(ThreadParams params) {
+			philNr = params.getThreadIndex();
+		}
+	}
+
+
+//	---------------------------- BENCHMARKS ----------------------------------
+
+	@Benchmark
+	public void sitAndLeave(Seat seat) throws InterruptedException
+	{
+		supervisor.allowToSit(seat.philNr);
+		supervisor.allowToLeave(seat.philNr);
+	}
+
+}
@@ -8,7 +8,7 @@
  *
  * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
  */
-package com.digital_indexing.philosophers.auxiliary;
+package com.digital_indexing.philosophers.benchmarks;
 
 
 public class TimeData implements Comparable<TimeData> {
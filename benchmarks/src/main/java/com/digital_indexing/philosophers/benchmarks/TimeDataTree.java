@@ -8,7 +8,7 @@
  *
  * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
  */
-package com.digital_indexing.philosophers.auxiliary;
+package com.digital_indexing.philosophers.benchmarks;
 
 import java.util.TreeSet;
 
@@ -16,7 +16,8 @@ import java.util.TreeSet;
  * Subclass of TreeSet<br>
  * Additional array guarantees fast access to the elements to change the time value of a philosopher.<br>
  * Overriden add method keeps array and tree synchronized.<br>
- * TimeData holds philosophizing time and nr of the philosoph.
+ * TimeData holds philosophizing time and nr of the philosoph.<br>
+ * The former ranking of ModelPhil, replaced by RankingIndex. Kept as the baseline of RankingBenchmark.
  * 
  * @author mabo
  *
@@ -0,0 +1,118 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.digital_indexing.philosophers.enums.ModePhil;
+import com.digital_indexing.philosophers.listeners.ModeSetEvent;
+import com.digital_indexing.philosophers.listeners.PhilNumberSetEvent;
+import com.digital_indexing.philosophers.system.ModelPhil;
+import com.digital_indexing.philosophers.system.ViewPhil;
+
+/**
+ * Painting of the table: the damaged bounds of one seat against the whole panel.<br>
+ * <p>
+ * The view paints into an image with the clip the repaint manager would set. One operation is one frame, 
+ * the counter pixels reports the painted pixels per second (area of the clip).
+ *
+ * @author mabo
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ViewPaintBenchmark {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	@Param({ "12", "100" })
+	public int nrOfPhils;
+
+	@Param({ "SEAT", "FULL" })
+	public String damage;
+
+	private ViewPhil view;
+	private BufferedImage image;
+	private Rectangle[] clips;
+	private int next;
+
+
+//	---------------------------- SETUP ----------------------------------
+
+	@Setup
+	public void setUp()
+	{
+		ModelPhil model = ModelPhil.getSingleInstance();
+		model.setModelListener(null);
+		model.setTimeListener(null);
+		PhilNumberSetEvent e = new PhilNumberSetEvent(this, nrOfPhils);
+		model.nrOfPhilosophersSet(e);
+		view = ViewPhil.getSingleInstance();
+		view.setSize(view.getPreferredSize());
+		view.nrOfPhilosophersSet(e);
+		view.modeSet(new ModeSetEvent(this, ModePhil.NORMALO));
+		image = new BufferedImage(view.getWidth(), view.getHeight(), BufferedImage.TYPE_INT_RGB);
+		clips = new Rectangle[nrOfPhils];
+		for (int i = 0; i < nrOfPhils; i++)
+			clips[i] = "FULL".equals(damage) ? new Rectangle(0, 0, view.getWidth(), view.getHeight()) : view.getSeatBounds(i);
+		//first frame paints the initial table
+		view.paint(image.getGraphics());
+	}
+
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Pixels {
+
+		public long pixels;
+
+		@Setup(Level.Iteration)
+		public void clean() {
+			pixels = 0;
+		}
+	}
+
+
+//	---------------------------- BENCHMARKS ----------------------------------
+
+	@Benchmark
+	public void paintFrame(Pixels counter)
+	{
+		Rectangle clip = clips[next++ % clips.length];
+		Graphics2D g2 = image.createGraphics();
+		g2.setClip(clip);
+		view.paint(g2);
+		g2.dispose();
+		counter.pixels += (long) clip.width * clip.height;
+	}
+
+}
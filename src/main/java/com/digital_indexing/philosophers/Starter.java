@@ -12,15 +12,23 @@ package com.digital_indexing.philosophers;
 
 import javax.swing.SwingUtilities;
 
+import com.digital_indexing.philosophers.auxiliary.SimulationConfig;
+import com.digital_indexing.philosophers.system.HeadlessSimulation;
 import com.digital_indexing.philosophers.system.PhilosopherFrame;
 
 public class Starter {
 
 	/**
-	 * Start Application by opening central building class: PhilosopherFrame.
-	 * @param args none
+	 * Start Application by opening central building class: PhilosopherFrame.<br>
+	 * With option -headless the simulation runs without gui (see SimulationConfig for all options).
+	 * @param args options
 	 */
-	public static void main(String[] args) {
+	public static void main(String[] args) throws InterruptedException {
+		SimulationConfig config = SimulationConfig.parse(args);
+		if (config.headless) {
+			runHeadless(config);
+			return;
+		}
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
 				PhilosopherFrame x = new PhilosopherFrame();
@@ -28,5 +36,11 @@ public class Starter {
 			}
 		});
 	}
+	
+	
+	private static void runHeadless(SimulationConfig config) throws InterruptedException {
+		System.setProperty("java.awt.headless", "true");
+		new HeadlessSimulation(config).run();
+	}
 
 }
@@ -0,0 +1,48 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.SplittableRandom;
+
+import com.digital_indexing.philosophers.enums.DistributionMode;
+
+/**
+ * Durations of philosophizing and eating.<br>
+ * <p>
+ * All distributions have the same mean (half of the max. action time), so the throughput of runs with different distributions can be compared:<br>
+ * - uniform: between 0 and the max. action time<br>
+ * - exponential: unbounded, many short and a few very long actions<br>
+ * - fixed: always the mean, no random value is drawn
+ *
+ * @author mabo
+ *
+ */
+public class ActionTimes {
+
+	/**
+	 * @param mode
+	 * @param random stream of the philosopher
+	 * @param actionTime max. action time in milliseconds
+	 * @return duration in milliseconds
+	 */
+	public static long draw(DistributionMode mode, SplittableRandom random, int actionTime)
+	{
+		switch (mode) {
+		case EXPONENTIAL:
+			return Math.round(-Math.log(1.0 - random.nextDouble()) * actionTime / 2.0);
+		case FIXED:
+			return Math.round(actionTime / 2.0);
+		default:
+			return Math.round(random.nextDouble() * actionTime);
+		}
+	}
+
+}
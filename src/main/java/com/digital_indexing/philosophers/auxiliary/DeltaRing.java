@@ -0,0 +1,138 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded ring of state deltas from the model to the view.<br>
+ * <p>
+ * Many threads publish, one thread drains (multi producer, single consumer). A delta is a long that is never 0.<br>
+ * - publish never blocks. if the ring is full the delta is dropped and the overflow flag is set. the consumer has to read the full state then<br>
+ * - drain hands all published deltas to a consumer and frees their slots<br>
+ * <p>
+ * Encoding of the deltas of the model: tag (PHIL or STICK) | value << 32 | index.
+ *
+ * @author mabo
+ *
+ */
+public class DeltaRing {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	public static final long PHIL = 1L << 60;
+	public static final long STICK = 2L << 60;
+	public static final long TAG_MASK = 3L << 60;
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private AtomicLongArray slots;
+	private int mask;
+	private AtomicLong head = new AtomicLong();
+	private AtomicLong tail = new AtomicLong();
+	private AtomicBoolean overflow = new AtomicBoolean();
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	/**
+	 * @param capacity rounded up to a power of two
+	 */
+	public DeltaRing(int capacity)
+	{
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		slots = new AtomicLongArray(size);
+		mask = size - 1;
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	public static long encode(long tag, int index, int value) {
+		return tag | ((long) value << 32) | (index & 0xffffffffL);
+	}
+
+	public static int index(long delta) {
+		return (int) delta;
+	}
+
+	public static int value(long delta) {
+		return (int) ((delta & ~TAG_MASK) >>> 32);
+	}
+
+
+	/**
+	 * @param delta not 0
+	 * @return false if the ring is full and the delta has been dropped
+	 */
+	public boolean publish(long delta)
+	{
+		while (true) {
+			long t = tail.get();
+			if (t - head.get() > mask) {
+				overflow.set(true);
+				return false;
+			}
+			if (tail.compareAndSet(t, t + 1)) {
+				slots.lazySet((int) t & mask, delta);
+				return true;
+			}
+		}
+	}
+
+
+	/**
+	 * hand all published deltas to the consumer. only one thread may drain.
+	 * @return number of drained deltas
+	 */
+	public int drain(Consumer consumer)
+	{
+		long h = head.get();
+		int drained = 0;
+		while (true) {
+			int idx = (int) h & mask;
+			long delta = slots.get(idx);
+			//0: empty or claimed but not yet written by its producer
+			if (delta == 0)
+				break;
+			slots.lazySet(idx, 0);
+			h++;
+			head.lazySet(h);
+			consumer.accept(delta);
+			drained++;
+		}
+		return drained;
+	}
+
+
+	/**
+	 * @return true if deltas have been dropped since the last call
+	 */
+	public boolean clearOverflow() {
+		return overflow.getAndSet(false);
+	}
+
+
+	public int size() {
+		return (int) (tail.get() - head.get());
+	}
+
+
+//	---------------------------- CONSUMER ----------------------------------
+
+	public interface Consumer {
+		public void accept(long delta);
+	}
+
+}
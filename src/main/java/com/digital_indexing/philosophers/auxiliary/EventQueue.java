@@ -0,0 +1,141 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.Arrays;
+
+/**
+ * Priority queue of timestamped events for the discrete event simulation.<br>
+ * <p>
+ * Binary min-heap on parallel primitive arrays, so adding and polling an event allocates nothing (apart from growing the arrays).<br>
+ * An event is a timestamp and an int payload. Events with the same timestamp are polled in the order they have been added.<br>
+ * The payload of the head is read with peekPayload before poll.
+ *
+ * @author mabo
+ *
+ */
+public class EventQueue {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private long[] times;
+	private long[] seqs;
+	private int[] payloads;
+	private int size;
+	private long nextSeq;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	public EventQueue(int capacity)
+	{
+		capacity = Math.max(2, capacity);
+		times = new long[capacity];
+		seqs = new long[capacity];
+		payloads = new int[capacity];
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	public void add(long time, int payload)
+	{
+		if (size == times.length)
+			grow();
+		int i = size++;
+		long seq = nextSeq++;
+		//sift up
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!before(time, seq, times[parent], seqs[parent]))
+				break;
+			move(parent, i);
+			i = parent;
+		}
+		set(i, time, seq, payload);
+	}
+
+
+	public long peekTime() {
+		return times[0];
+	}
+
+	public int peekPayload() {
+		return payloads[0];
+	}
+
+
+	/**
+	 * remove the head of the queue.
+	 * @return timestamp of the removed event
+	 */
+	public long poll()
+	{
+		if (size == 0)
+			throw new IllegalStateException("Event queue is empty");
+		long result = times[0];
+		int last = --size;
+		if (last == 0)
+			return result;
+		long time = times[last];
+		long seq = seqs[last];
+		int payload = payloads[last];
+		//sift down
+		int i = 0;
+		int half = last >>> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			int right = child + 1;
+			if (right < last && before(times[right], seqs[right], times[child], seqs[child]))
+				child = right;
+			if (!before(times[child], seqs[child], time, seq))
+				break;
+			move(child, i);
+			i = child;
+		}
+		set(i, time, seq, payload);
+		return result;
+	}
+
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+
+//	------------------------ AUXILIARY METHODS -------------------------------
+
+	private static boolean before(long time1, long seq1, long time2, long seq2) {
+		return time1 < time2 || (time1 == time2 && seq1 < seq2);
+	}
+
+	private void move(int from, int to) {
+		set(to, times[from], seqs[from], payloads[from]);
+	}
+
+	private void set(int i, long time, long seq, int payload) {
+		times[i] = time;
+		seqs[i] = seq;
+		payloads[i] = payload;
+	}
+
+	private void grow() {
+		int capacity = times.length * 2;
+		times = Arrays.copyOf(times, capacity);
+		seqs = Arrays.copyOf(seqs, capacity);
+		payloads = Arrays.copyOf(payloads, capacity);
+	}
+
+}
@@ -0,0 +1,172 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies with logarithmic buckets and a fixed size.<br>
+ * <p>
+ * Latencies are counted in microseconds. Values below 8 have a bucket each, above that every power of two is split into 8 linear sub buckets, 
+ * so a bucket covers at most 12.5% of its values. The largest bucket starts at 2^36 microseconds (about 19 hours), larger values are counted there.<br>
+ * The counts are longs: a table-wide bucket of a long run (or of the discrete event engine) passes 2^31.<br>
+ * <p>
+ * - record allocates nothing. one thread records (e.g. the philosopher of a seat), any thread may read<br>
+ * - recordConcurrently: atomic version of record for histograms shared by several writers (e.g. a stripe of seats)<br>
+ * - clear resets the histogram in place. values recorded at the same time may be lost<br>
+ * - merge adds the counts of another histogram. the table-wide histogram is the merge of the histograms of all seats<br>
+ * - getValueAtPercentile returns the upper bound of the bucket of the percentile (at most the max. recorded value)
+ *
+ * @author mabo
+ *
+ */
+public class LatencyHistogram {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	private static final int SUB_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int MAX_EXPONENT = 36;
+	public static final int NR_OF_BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private AtomicLongArray counts = new AtomicLongArray(NR_OF_BUCKETS);
+	private AtomicLong count = new AtomicLong();
+	private AtomicLong sum = new AtomicLong();
+	private AtomicLong max = new AtomicLong();
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	/**
+	 * count a latency. only one thread may record into a histogram.
+	 * @param nanos
+	 */
+	public void record(long nanos)
+	{
+		long micros = Math.max(0, nanos / 1000);
+		int i = bucketOf(micros);
+		//single writer: ordered stores instead of atomic increments
+		counts.lazySet(i, counts.get(i) + 1);
+		count.lazySet(count.get() + 1);
+		sum.lazySet(sum.get() + micros);
+		if (micros > max.get())
+			max.lazySet(micros);
+	}
+
+
+	/**
+	 * count a latency. any number of threads may record concurrently.
+	 * @param nanos
+	 */
+	public void recordConcurrently(long nanos)
+	{
+		long micros = Math.max(0, nanos / 1000);
+		counts.incrementAndGet(bucketOf(micros));
+		count.incrementAndGet();
+		sum.addAndGet(micros);
+		long current;
+		while (micros > (current = max.get()) && !max.compareAndSet(current, micros))
+			;
+	}
+
+
+	public void clear()
+	{
+		for (int i = 0; i < NR_OF_BUCKETS; i++)
+			counts.lazySet(i, 0);
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+
+	/**
+	 * add the counts of the other histogram to this one. this histogram must not be recorded into at the same time.
+	 */
+	public void merge(LatencyHistogram other)
+	{
+		for (int i = 0; i < NR_OF_BUCKETS; i++) {
+			long c = other.counts.get(i);
+			if (c != 0)
+				counts.lazySet(i, counts.get(i) + c);
+		}
+		count.lazySet(count.get() + other.count.get());
+		sum.lazySet(sum.get() + other.sum.get());
+		max.lazySet(Math.max(max.get(), other.max.get()));
+	}
+
+
+	/**
+	 * @param percentile 0 to 100, e.g. 99.9
+	 * @return latency in nanoseconds, 0 if nothing has been recorded
+	 */
+	public long getValueAtPercentile(double percentile)
+	{
+		long total = count.get();
+		if (total == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+		long seen = 0;
+		for (int i = 0; i < NR_OF_BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank)
+				return Math.min(upperBoundOf(i), max.get()) * 1000;
+		}
+		return max.get() * 1000;
+	}
+
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getMaxNanos() {
+		return max.get() * 1000;
+	}
+
+	public double getMeanNanos() {
+		long total = count.get();
+		return total == 0 ? 0.0 : sum.get() * 1000.0 / total;
+	}
+
+
+//	------------------------ AUXILIARY METHODS -------------------------------
+
+	static int bucketOf(long micros)
+	{
+		if (micros < SUB_BUCKETS)
+			return (int) micros;
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		if (exponent > MAX_EXPONENT)
+			return NR_OF_BUCKETS - 1;
+		int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+
+	/**
+	 * @return largest value of the bucket in microseconds
+	 */
+	static long upperBoundOf(int bucket)
+	{
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+		int sub = bucket % SUB_BUCKETS;
+		long width = 1L << (exponent - SUB_BITS);
+		return (1L << exponent) + (sub + 1) * width - 1;
+	}
+
+}
@@ -0,0 +1,201 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Store in a memory mapped file, so the seat data does not use the heap.<br>
+ * <p>
+ * Layout of the file (big endian, fixed offsets):<br>
+ * - header (64 bytes): int MAGIC, int LAYOUT_VERSION, long nr of seats, long offset of the states, long offset of the sticks, long offset of the times, long offset of the meals<br>
+ * - states: one byte per seat<br>
+ * - sticks: one byte per area<br>
+ * - times: one double per seat (8 byte aligned)<br>
+ * - meals: one long per seat<br>
+ * <p>
+ * A mapped buffer holds at most 2 GB, so the file is mapped in segments of 1 GB. Values of 8 bytes are aligned and never cross a segment.<br>
+ * Each value has one writer at a time (the philosopher of the seat, the owner of the stick), so values are written with plain puts. 
+ * Another process can map the same file read-only and inspect a running simulation.
+ *
+ * @author mabo
+ *
+ */
+public class MappedStateStore implements StateStore {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	public static final int MAGIC = 0x5048494c;
+	public static final int LAYOUT_VERSION = 1;
+	public static final int HEADER_SIZE = 64;
+
+	private static final int SEGMENT_BITS = 30;
+	private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private RandomAccessFile file;
+	private MappedByteBuffer[] segments;
+	private int nrOfSeats;
+	private long stateOffset;
+	private long stickOffset;
+	private long timeOffset;
+	private long mealOffset;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	/**
+	 * create (or overwrite) the file and initialize all seats.
+	 * @param path file to map
+	 * @param nrOfSeats
+	 * @param initialState ordinal of the state of all philosophers
+	 * @param initialStick position of all sticks
+	 * @throws UncheckedIOException if the file can not be created or mapped
+	 */
+	public MappedStateStore(File path, int nrOfSeats, int initialState, int initialStick)
+	{
+		this.nrOfSeats = nrOfSeats;
+		stateOffset = HEADER_SIZE;
+		stickOffset = stateOffset + nrOfSeats;
+		timeOffset = align(stickOffset + nrOfSeats);
+		mealOffset = timeOffset + 8L * nrOfSeats;
+		long size = mealOffset + 8L * nrOfSeats;
+		try {
+			file = new RandomAccessFile(path, "rw");
+			file.setLength(0);
+			file.setLength(size);
+			FileChannel channel = file.getChannel();
+			segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+			for (int i = 0; i < segments.length; i++) {
+				long position = (long) i << SEGMENT_BITS;
+				segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.min(SEGMENT_MASK + 1, size - position));
+			}
+		} catch (IOException e) {
+			close();
+			throw new UncheckedIOException(String.format("Could not map state file %s", path), e);
+		}
+		//the file is zeroed, so times and meals start at 0
+		for (int i = 0; i < nrOfSeats; i++) {
+			putByte(stateOffset + i, (byte) initialState);
+			putByte(stickOffset + i, (byte) initialStick);
+		}
+		segments[0].putInt(0, MAGIC);
+		segments[0].putInt(4, LAYOUT_VERSION);
+		segments[0].putLong(8, nrOfSeats);
+		segments[0].putLong(16, stateOffset);
+		segments[0].putLong(24, stickOffset);
+		segments[0].putLong(32, timeOffset);
+		segments[0].putLong(40, mealOffset);
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	@Override
+	public int size() {
+		return nrOfSeats;
+	}
+
+	@Override
+	public void setState(int seat, int state) {
+		putByte(stateOffset + seat, (byte) state);
+	}
+
+	@Override
+	public int getState(int seat) {
+		return getByte(stateOffset + seat);
+	}
+
+	@Override
+	public void setStick(int areaNr, int position) {
+		putByte(stickOffset + areaNr, (byte) position);
+	}
+
+	@Override
+	public int getStick(int areaNr) {
+		return getByte(stickOffset + areaNr);
+	}
+
+	@Override
+	public double addTime(int seat, double seconds)
+	{
+		long offset = timeOffset + 8L * seat;
+		double time = segment(offset).getDouble(index(offset)) + seconds;
+		segment(offset).putDouble(index(offset), time);
+		return time;
+	}
+
+	@Override
+	public double getTime(int seat) {
+		long offset = timeOffset + 8L * seat;
+		return segment(offset).getDouble(index(offset));
+	}
+
+	@Override
+	public void incrementMeals(int seat) {
+		long offset = mealOffset + 8L * seat;
+		segment(offset).putLong(index(offset), segment(offset).getLong(index(offset)) + 1);
+	}
+
+	@Override
+	public long getMeals(int seat) {
+		long offset = mealOffset + 8L * seat;
+		return segment(offset).getLong(index(offset));
+	}
+
+
+	/**
+	 * close the file. the mapping itself is released by the garbage collector.
+	 */
+	@Override
+	public void close()
+	{
+		if (file == null)
+			return;
+		try {
+			file.close();
+		} catch (IOException e) {
+			Logger4Philosophers.logger4Philosophers.warn(String.format("Could not close state file: %s", e.getMessage()));
+		}
+		file = null;
+	}
+
+
+//	------------------------ AUXILIARY METHODS -------------------------------
+
+	private MappedByteBuffer segment(long offset) {
+		return segments[(int) (offset >>> SEGMENT_BITS)];
+	}
+
+	private static int index(long offset) {
+		return (int) (offset & SEGMENT_MASK);
+	}
+
+	private void putByte(long offset, byte value) {
+		segment(offset).put(index(offset), value);
+	}
+
+	private int getByte(long offset) {
+		return segment(offset).get(index(offset));
+	}
+
+	private static long align(long offset) {
+		return (offset + 7) & ~7L;
+	}
+
+}
@@ -0,0 +1,163 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Heap store with the state of all seats packed into words of 64 bit.<br>
+ * <p>
+ * Each seat has 4 bits, so 16 seats share a word:<br>
+ * - bit 0-1: state of the philosopher (ordinal of StatePhil)<br>
+ * - bit 2-3: position of the stick of the area with the same nr (LEFT, MIDDLE or RIGHT, like the three sticks of an area in the view)<br>
+ * <p>
+ * A change is a compare-and-set of the whole word, so writers of neighboring seats never lose an update. 
+ * Readers scanning the table read one word for 16 seats.<br>
+ * Times and meal counts are kept in plain arrays next to the words.
+ *
+ * @author mabo
+ *
+ */
+public class PackedStateStore implements StateStore {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	public static final int SEATS_PER_WORD = 16;
+
+	private static final int BITS = 4;
+	private static final long STATE_MASK = 0x3L;
+	private static final long STICK_MASK = 0xcL;
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private AtomicLongArray words;
+	private int nrOfSeats;
+	private double[] times;
+	private AtomicLongArray meals;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	/**
+	 * @param nrOfSeats
+	 * @param initialState ordinal of the state of all philosophers
+	 * @param initialStick position of all sticks
+	 */
+	public PackedStateStore(int nrOfSeats, int initialState, int initialStick)
+	{
+		this.nrOfSeats = nrOfSeats;
+		times = new double[nrOfSeats];
+		meals = new AtomicLongArray(nrOfSeats);
+		words = new AtomicLongArray((nrOfSeats + SEATS_PER_WORD - 1) / SEATS_PER_WORD);
+		long nibble = initialState | (initialStick << 2);
+		long word = 0;
+		for (int i = 0; i < SEATS_PER_WORD; i++)
+			word |= nibble << (i * BITS);
+		for (int i = 0; i < words.length(); i++)
+			words.set(i, word);
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	@Override
+	public void setState(int seat, int state) {
+		update(seat, STATE_MASK, state);
+	}
+
+	@Override
+	public void setStick(int areaNr, int position) {
+		update(areaNr, STICK_MASK, position << 2);
+	}
+
+	@Override
+	public int getState(int seat) {
+		return (int) (nibble(seat) & STATE_MASK);
+	}
+
+	@Override
+	public int getStick(int areaNr) {
+		return (int) (nibble(areaNr) & STICK_MASK) >>> 2;
+	}
+
+	@Override
+	public double addTime(int seat, double seconds) {
+		return times[seat] += seconds;
+	}
+
+	@Override
+	public double getTime(int seat) {
+		return times[seat];
+	}
+
+	@Override
+	public void incrementMeals(int seat) {
+		meals.incrementAndGet(seat);
+	}
+
+	@Override
+	public long getMeals(int seat) {
+		return meals.get(seat);
+	}
+
+	@Override
+	public void close() {
+	}
+
+
+	/**
+	 * @return word with the seats i * 16 to i * 16 + 15, seat i * 16 in the lowest bits
+	 */
+	public long getWord(int i) {
+		return words.get(i);
+	}
+
+	public int getNrOfWords() {
+		return words.length();
+	}
+
+	@Override
+	public int size() {
+		return nrOfSeats;
+	}
+
+
+	public static int stateOf(long word, int seatInWord) {
+		return (int) (word >>> (seatInWord * BITS) & STATE_MASK);
+	}
+
+	public static int stickOf(long word, int seatInWord) {
+		return (int) (word >>> (seatInWord * BITS) & STICK_MASK) >>> 2;
+	}
+
+
+//	------------------------ AUXILIARY METHODS -------------------------------
+
+	private long nibble(int seat) {
+		return words.get(seat / SEATS_PER_WORD) >>> (seat % SEATS_PER_WORD * BITS);
+	}
+
+	private void update(int seat, long mask, long value)
+	{
+		int i = seat / SEATS_PER_WORD;
+		int shift = seat % SEATS_PER_WORD * BITS;
+		long clear = ~(mask << shift);
+		long set = value << shift;
+		while (true) {
+			long word = words.get(i);
+			long next = (word & clear) | set;
+			if (next == word || words.compareAndSet(i, word, next))
+				return;
+		}
+	}
+
+}
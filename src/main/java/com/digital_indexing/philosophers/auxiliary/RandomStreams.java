@@ -0,0 +1,76 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random streams of the philosophers derived from one master seed.<br>
+ * <p>
+ * Each philosopher gets its own generator. It is used by one thread only, so drawing a duration touches no shared state.<br>
+ * The generator of a seat depends only on the master seed and the nr of the seat, 
+ * so two runs with the same seed draw the same sequence of durations for each philosopher, in the threaded and in the discrete event engine.<br>
+ * Back-off times get a second generator per seat. Back-offs depend on the contention, so drawing them from the stream of the durations would shift the durations.
+ *
+ * @author mabo
+ *
+ */
+public class RandomStreams {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private long seed;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	public RandomStreams(long seed) {
+		this.seed = seed;
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	/**
+	 * @param philNr
+	 * @return new generator for the philosopher
+	 */
+	public SplittableRandom forSeat(int philNr) {
+		return new SplittableRandom(mix64(seed + GOLDEN_GAMMA * (philNr + 1)));
+	}
+
+
+	/**
+	 * @param philNr
+	 * @return new generator for the back-off times of the philosopher, independent of its durations
+	 */
+	public SplittableRandom forBackoff(int philNr) {
+		return new SplittableRandom(mix64(mix64(seed) + GOLDEN_GAMMA * (philNr + 1)));
+	}
+
+
+	public long getSeed() {
+		return seed;
+	}
+
+
+	/**
+	 * finalizer of SplitMix64, so neighboring seeds give unrelated streams.
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+}
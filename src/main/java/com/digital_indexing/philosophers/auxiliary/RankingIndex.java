@@ -0,0 +1,299 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+/**
+ * Ranking of the philosophers by their absolute philosophizing time.<br>
+ * <p>
+ * Order statistic tree (treap) on parallel primitive arrays. The node of a philosopher is its nr, so changing a time allocates nothing.<br>
+ * - rank 0 is the philosopher with the longest time. equal times are ordered by the lower philosopher nr first<br>
+ * - changeTimeValue, rankOf and philAt are O(log n) (expected), topK is O(k + log n)<br>
+ * - the priorities of the nodes are a fixed hash of the philosopher nr, so the shape of the tree is reproducible<br>
+ * - the version counts the changes, readers use it to find out if they missed one<br>
+ * <p>
+ * The index is not thread-safe, writers and readers have to lock it.
+ *
+ * @author mabo
+ *
+ */
+public class RankingIndex {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	private static final int NIL = -1;
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private double[] times;
+	private int[] left;
+	private int[] right;
+	private int[] sizes;
+	private int[] priorities;
+	private int root = NIL;
+	private long version;
+
+	private int[] stack;
+	private int splitLeft, splitRight;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	/**
+	 * all philosophers start with time 0.
+	 */
+	public RankingIndex(int nrOfPhils)
+	{
+		times = new double[nrOfPhils];
+		left = new int[nrOfPhils];
+		right = new int[nrOfPhils];
+		sizes = new int[nrOfPhils];
+		priorities = new int[nrOfPhils];
+		stack = new int[nrOfPhils];
+		for (int i = 0; i < nrOfPhils; i++) {
+			priorities[i] = hash(i);
+			reset(i);
+			root = insert(root, i);
+		}
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	/**
+	 * add the delta to the time of the philosopher and move it to its new rank.
+	 * @param philNr
+	 * @param delta in milliseconds, the time is kept in seconds
+	 * @return the new time or -1.0 if the philosopher nr is invalid
+	 */
+	public double changeTimeValue(int philNr, double delta)
+	{
+		if (philNr < 0 || philNr >= times.length)
+			return -1.0;
+		setTime(philNr, times[philNr] + delta / 1000.0);
+		return times[philNr];
+	}
+
+
+	public void setTime(int philNr, double time)
+	{
+		root = remove(root, philNr);
+		times[philNr] = time;
+		reset(philNr);
+		root = insert(root, philNr);
+		version++;
+	}
+
+
+	/**
+	 * @return rank of the philosopher, 0 is the longest time
+	 */
+	public int rankOf(int philNr)
+	{
+		int rank = 0;
+		int t = root;
+		while (t != NIL) {
+			if (t == philNr)
+				return rank + size(left[t]);
+			if (before(philNr, t))
+				t = left[t];
+			else {
+				rank += size(left[t]) + 1;
+				t = right[t];
+			}
+		}
+		return NIL;
+	}
+
+
+	/**
+	 * @return nr of the philosopher at the rank
+	 */
+	public int philAt(int rank)
+	{
+		if (rank < 0 || rank >= size())
+			throw new IndexOutOfBoundsException("Rank " + rank);
+		int t = root;
+		while (true) {
+			int leftSize = size(left[t]);
+			if (rank < leftSize)
+				t = left[t];
+			else if (rank == leftSize)
+				return t;
+			else {
+				rank -= leftSize + 1;
+				t = right[t];
+			}
+		}
+	}
+
+
+	/**
+	 * in-order walk of the first k ranks.
+	 * @param k
+	 * @param out receives the philosopher nrs ordered by rank
+	 * @return number of philosophers written to out
+	 */
+	public int topK(int k, int[] out)
+	{
+		k = Math.min(k, Math.min(out.length, size()));
+		int count = 0;
+		int depth = 0;
+		int t = root;
+		while (count < k) {
+			while (t != NIL) {
+				stack[depth++] = t;
+				t = left[t];
+			}
+			t = stack[--depth];
+			out[count++] = t;
+			t = right[t];
+		}
+		return count;
+	}
+
+
+	public double getTime(int philNr) {
+		return times[philNr];
+	}
+
+	/**
+	 * copy the times of all philosophers. reads only one flat array, so it is safe in an optimistic read section.
+	 */
+	public void copyTimes(double[] dest) {
+		System.arraycopy(times, 0, dest, 0, times.length);
+	}
+
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * @return number of philosophers, does not depend on the tree
+	 */
+	public int getNrOfPhils() {
+		return times.length;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+
+//	------------------------ AUXILIARY METHODS -------------------------------
+
+	/**
+	 * @return true if philosopher a is ranked before philosopher b
+	 */
+	private boolean before(int a, int b) {
+		return times[a] > times[b] || (times[a] == times[b] && a < b);
+	}
+
+	private int size(int t) {
+		return t == NIL ? 0 : sizes[t];
+	}
+
+	private void update(int t) {
+		sizes[t] = size(left[t]) + size(right[t]) + 1;
+	}
+
+	private void reset(int t) {
+		left[t] = NIL;
+		right[t] = NIL;
+		sizes[t] = 1;
+	}
+
+
+	private int insert(int t, int node)
+	{
+		if (t == NIL)
+			return node;
+		if (priorities[node] > priorities[t]) {
+			split(t, node);
+			left[node] = splitLeft;
+			right[node] = splitRight;
+			update(node);
+			return node;
+		}
+		if (before(node, t))
+			left[t] = insert(left[t], node);
+		else
+			right[t] = insert(right[t], node);
+		update(t);
+		return t;
+	}
+
+
+	/**
+	 * split the tree into the nodes ranked before the node (splitLeft) and after it (splitRight).
+	 */
+	private void split(int t, int node)
+	{
+		if (t == NIL) {
+			splitLeft = NIL;
+			splitRight = NIL;
+		}
+		else if (before(t, node)) {
+			split(right[t], node);
+			right[t] = splitLeft;
+			update(t);
+			splitLeft = t;
+		}
+		else {
+			split(left[t], node);
+			left[t] = splitRight;
+			update(t);
+			splitRight = t;
+		}
+	}
+
+
+	private int remove(int t, int node)
+	{
+		if (t == node)
+			return merge(left[t], right[t]);
+		if (before(node, t))
+			left[t] = remove(left[t], node);
+		else
+			right[t] = remove(right[t], node);
+		update(t);
+		return t;
+	}
+
+
+	/**
+	 * @return root of the merged trees, all nodes of a are ranked before the nodes of b
+	 */
+	private int merge(int a, int b)
+	{
+		if (a == NIL)
+			return b;
+		if (b == NIL)
+			return a;
+		if (priorities[a] > priorities[b]) {
+			right[a] = merge(right[a], b);
+			update(a);
+			return a;
+		}
+		left[b] = merge(a, left[b]);
+		update(b);
+		return b;
+	}
+
+
+	private static int hash(int i) {
+		int h = (i + 1) * 0x9e3779b9;
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		return h ^ (h >>> 13);
+	}
+
+}
@@ -0,0 +1,76 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+/**
+ * Immutable copy of the ranking at one version.<br>
+ * <p>
+ * Built from a copy of the times of all philosophers. The order is the order of the RankingIndex (longest time first, equal times by the lower philosopher nr).<br>
+ * A snapshot can be shared by any number of readers in any thread.
+ *
+ * @author mabo
+ *
+ */
+public final class RankingSnapshot {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private final long version;
+	private final double[] times;
+	private final int[] order;
+	private final int[] ranks;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	/**
+	 * @param version version of the ranking the times have been copied from
+	 * @param times time of each philosopher. the array is owned by the snapshot afterwards
+	 */
+	public RankingSnapshot(long version, double[] times)
+	{
+		this.version = version;
+		this.times = times;
+		int n = times.length;
+		RankingIndex index = new RankingIndex(n);
+		for (int i = 0; i < n; i++)
+			index.setTime(i, times[i]);
+		order = new int[n];
+		index.topK(n, order);
+		ranks = new int[n];
+		for (int rank = 0; rank < n; rank++)
+			ranks[order[rank]] = rank;
+	}
+
+
+//	----------------------------- GETTERS -----------------------------
+
+	public long getVersion() {
+		return version;
+	}
+
+	public int size() {
+		return order.length;
+	}
+
+	public int philAt(int rank) {
+		return order[rank];
+	}
+
+	public int rankOf(int philNr) {
+		return ranks[philNr];
+	}
+
+	public double getTime(int philNr) {
+		return times[philNr];
+	}
+
+}
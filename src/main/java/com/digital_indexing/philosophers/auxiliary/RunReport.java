@@ -0,0 +1,131 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.digital_indexing.philosophers.enums.ReportMode;
+
+/**
+ * Result of a headless run as ordered key value pairs.<br>
+ * <p>
+ * Values are strings, numbers, arrays of longs or nested reports. The report is printed as text (one "key: value" line per entry, 
+ * a nested report as "key=value" pairs on its line) or as one json object, so runs of different builds can be compared by scripts.<br>
+ * Numbers are always printed with a dot as decimal separator.
+ *
+ * @author mabo
+ *
+ */
+public class RunReport {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private Map<String, Object> values = new LinkedHashMap<String, Object>();
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	public RunReport put(String key, Object value) {
+		values.put(key, value);
+		return this;
+	}
+
+	public Object get(String key) {
+		return values.get(key);
+	}
+
+
+	public void print(PrintStream out, ReportMode mode)
+	{
+		if (mode == ReportMode.JSON) {
+			out.println(toJson());
+			return;
+		}
+		for (Map.Entry<String, Object> entry : values.entrySet())
+			out.println(entry.getKey() + ": " + format(entry.getValue(), false));
+	}
+
+
+	public String toJson()
+	{
+		StringBuilder json = new StringBuilder("{");
+		for (Map.Entry<String, Object> entry : values.entrySet()) {
+			if (json.length() > 1)
+				json.append(',');
+			json.append(quote(entry.getKey())).append(':').append(format(entry.getValue(), true));
+		}
+		return json.append('}').toString();
+	}
+
+
+//	------------------------ AUXILIARY METHODS -------------------------------
+
+	/**
+	 * @return "key=value" pairs separated by spaces
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder text = new StringBuilder();
+		for (Map.Entry<String, Object> entry : values.entrySet()) {
+			if (text.length() > 0)
+				text.append(' ');
+			text.append(entry.getKey()).append('=').append(format(entry.getValue(), false));
+		}
+		return text.toString();
+	}
+
+
+	private static String format(Object value, boolean json)
+	{
+		if (value instanceof RunReport)
+			return json ? ((RunReport) value).toJson() : value.toString();
+		if (value instanceof Double || value instanceof Float) {
+			double d = ((Number) value).doubleValue();
+			if (Double.isNaN(d) || Double.isInfinite(d))
+				return json ? "null" : String.valueOf(d);
+			return String.format(Locale.ROOT, "%.3f", d);
+		}
+		if (value instanceof Number || value instanceof Boolean)
+			return String.valueOf(value);
+		if (value instanceof long[]) {
+			long[] array = (long[]) value;
+			StringBuilder result = new StringBuilder(json ? "[" : "");
+			for (int i = 0; i < array.length; i++) {
+				if (i > 0)
+					result.append(json ? "," : " ");
+				result.append(array[i]);
+			}
+			return result.append(json ? "]" : "").toString();
+		}
+		return json ? quote(String.valueOf(value)) : String.valueOf(value);
+	}
+
+
+	private static String quote(String s)
+	{
+		StringBuilder result = new StringBuilder("\"");
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '"' || c == '\\')
+				result.append('\\').append(c);
+			else if (c < 0x20)
+				result.append(String.format("\\u%04x", (int) c));
+			else
+				result.append(c);
+		}
+		return result.append('"').toString();
+	}
+
+}
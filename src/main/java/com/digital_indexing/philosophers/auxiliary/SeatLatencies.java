@@ -0,0 +1,200 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.digital_indexing.philosophers.enums.LatencyKind;
+
+/**
+ * Latencies of the table for each LatencyKind.<br>
+ * <p>
+ * - ADMISSION: waiting for a seat (sit of the deadlock strategy)<br>
+ * - FORKS: waiting for both sticks (takeSticks of the deadlock strategy)<br>
+ * - WAIT: both together, from asking for a seat until eating<br>
+ * - EATING: duration of the meal<br>
+ * <p>
+ * The histograms are table-wide and striped: a seat records into the histogram of its stripe (seat nr modulo the nr of stripes), 
+ * so the memory of the histograms does not grow with the table. The table-wide histogram of a kind is merged from the stripes on request.<br>
+ * Per seat the max. wait (4 bytes, microseconds) and a coarse histogram of the waits are kept. The philosopher of a seat is its only writer.<br>
+ * The histogram of a seat has SEAT_BUCKETS buckets of one byte: below 64 microseconds, then one per power of two, the last from about 1 sec. 
+ * If a bucket is full all buckets of the seat are halved, so the percentiles of a seat stay right but weight its recent waits more.
+ * A seat costs 20 bytes, so the percentiles of each seat are kept even for millions of seats (e.g. to find the seat with the worst p99).<br>
+ * The histograms are allocated once. resize and clear reset them in place.
+ *
+ * @author mabo
+ *
+ */
+public class SeatLatencies {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	public static final int MAX_STRIPES = 64;
+	public static final int SEAT_BUCKETS = 16;
+
+	private static final int SEAT_BUCKET_SHIFT = 5;
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private LatencyHistogram[][] histograms;
+	private int stripeMask;
+	private volatile AtomicIntegerArray maxWaits;
+	private volatile byte[] seatWaits;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	public SeatLatencies(int nrOfSeats) {
+		this(nrOfSeats, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param nrOfSeats
+	 * @param parallelism nr of threads recording at the same time. two stripes per thread, rounded up to a power of two (at most MAX_STRIPES)
+	 */
+	public SeatLatencies(int nrOfSeats, int parallelism)
+	{
+		int stripes = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, parallelism * 2 - 1)) << 1);
+		stripeMask = stripes - 1;
+		histograms = new LatencyHistogram[LatencyKind.values().length][stripes];
+		for (LatencyHistogram[] kind : histograms) {
+			for (int i = 0; i < kind.length; i++)
+				kind[i] = new LatencyHistogram();
+		}
+		maxWaits = new AtomicIntegerArray(nrOfSeats);
+		seatWaits = new byte[nrOfSeats * SEAT_BUCKETS];
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	public void record(LatencyKind kind, int seat, long nanos)
+	{
+		histograms[kind.ordinal()][seat & stripeMask].recordConcurrently(nanos);
+		if (kind == LatencyKind.WAIT) {
+			AtomicIntegerArray waits = maxWaits;
+			int micros = (int) Math.min(Integer.MAX_VALUE, Math.max(0, nanos / 1000));
+			if (seat >= waits.length())
+				return;
+			if (micros > waits.get(seat))
+				waits.lazySet(seat, micros);
+			countSeatWait(seat, micros);
+		}
+	}
+
+
+	private void countSeatWait(int seat, int micros)
+	{
+		byte[] buckets = seatWaits;
+		int first = seat * SEAT_BUCKETS;
+		if (first >= buckets.length)
+			return;
+		int i = first + seatBucketOf(micros);
+		if ((buckets[i] & 0xff) == 0xff) {
+			//full: halve all buckets of the seat
+			for (int j = first; j < first + SEAT_BUCKETS; j++)
+				buckets[j] = (byte) ((buckets[j] & 0xff) >>> 1);
+		}
+		buckets[i]++;
+	}
+
+
+	/**
+	 * clear the histograms and the max. waits in place.
+	 */
+	public void clear()
+	{
+		for (LatencyHistogram[] kind : histograms) {
+			for (LatencyHistogram stripe : kind)
+				stripe.clear();
+		}
+		AtomicIntegerArray waits = maxWaits;
+		for (int i = 0; i < waits.length(); i++)
+			waits.lazySet(i, 0);
+		Arrays.fill(seatWaits, (byte) 0);
+	}
+
+
+	/**
+	 * new table: clear everything. the max. waits are only reallocated if the nr of seats changed.
+	 */
+	public void resize(int nrOfSeats)
+	{
+		if (maxWaits.length() != nrOfSeats) {
+			maxWaits = new AtomicIntegerArray(nrOfSeats);
+			seatWaits = new byte[nrOfSeats * SEAT_BUCKETS];
+		}
+		clear();
+	}
+
+
+	/**
+	 * @return new histogram with the counts of all stripes
+	 */
+	public LatencyHistogram getTable(LatencyKind kind)
+	{
+		LatencyHistogram table = new LatencyHistogram();
+		for (LatencyHistogram stripe : histograms[kind.ordinal()])
+			table.merge(stripe);
+		return table;
+	}
+
+
+	/**
+	 * @param seat
+	 * @param percentile 0 to 100, e.g. 99
+	 * @return wait of the seat in nanoseconds: upper bound of the bucket of the percentile, at most the max. wait of the seat. 0 if the seat has not waited yet
+	 */
+	public long getSeatWaitAtPercentile(int seat, double percentile)
+	{
+		byte[] buckets = seatWaits;
+		int first = seat * SEAT_BUCKETS;
+		long total = 0;
+		for (int i = 0; i < SEAT_BUCKETS; i++)
+			total += buckets[first + i] & 0xff;
+		if (total == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+		long seen = 0;
+		int bucket = 0;
+		while (bucket < SEAT_BUCKETS - 1 && (seen += buckets[first + bucket] & 0xff) < rank)
+			bucket++;
+		long upper = bucket == SEAT_BUCKETS - 1 ? Long.MAX_VALUE : (1L << (bucket + SEAT_BUCKET_SHIFT + 1)) - 1;
+		return Math.min(upper, maxWaits.get(seat)) * 1000L;
+	}
+
+
+	/**
+	 * 0: below 64 microseconds, then one bucket per power of two
+	 */
+	static int seatBucketOf(int micros) {
+		int exponent = 31 - Integer.numberOfLeadingZeros(micros);
+		return Math.max(0, Math.min(SEAT_BUCKETS - 1, exponent - SEAT_BUCKET_SHIFT));
+	}
+
+
+//	----------------------------- GETTERS -----------------------------
+
+	public long getMaxWaitNanos(int seat) {
+		return maxWaits.get(seat) * 1000L;
+	}
+
+	public int getNrOfStripes() {
+		return stripeMask + 1;
+	}
+
+	public int size() {
+		return maxWaits.length();
+	}
+
+}
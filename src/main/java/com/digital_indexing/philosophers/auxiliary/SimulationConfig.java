@@ -0,0 +1,293 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.io.File;
+
+import com.digital_indexing.philosophers.enums.AdmissionMode;
+import com.digital_indexing.philosophers.enums.DistributionMode;
+import com.digital_indexing.philosophers.enums.EngineMode;
+import com.digital_indexing.philosophers.enums.ExecutorMode;
+import com.digital_indexing.philosophers.enums.ReportMode;
+import com.digital_indexing.philosophers.enums.StickMode;
+import com.digital_indexing.philosophers.enums.StoreMode;
+import com.digital_indexing.philosophers.enums.StrategyMode;
+
+/**
+ * Settings of a simulation run.<br>
+ * <p>
+ * Default values are read from system properties (prefix "philosophers."), e.g. -Dphilosophers.phils=100<br>
+ * Command line arguments override the system properties, e.g. -headless -phils 100 -time 10 -duration 60<br>
+ * <p>
+ * - headless: run the simulation without any gui (no AWT classes are loaded)<br>
+ * - phils: number of philosophers<br>
+ * - time: max. time for a philosopher action in milliseconds<br>
+ * - duration: duration of a headless run in seconds (virtual seconds for the des engine)<br>
+ * - warmup: seconds before the measurement of a headless run starts. meals and latencies of the warm-up are not reported<br>
+ * - distribution: distribution of the action times (uniform, exponential, fixed), all with half the max. action time as mean<br>
+ * - report: format of the report of a headless run (text, json)<br>
+ * - seed: master seed of the random durations of the philosophers. a random seed is chosen if not set<br>
+ * - engine: engine of a headless run (threads: one thread per philosopher, des: discrete event simulation on a virtual clock). 
+ *   des only simulates the waiter strategy with the heap store, other strategies and stores are rejected. sticks, executor and admission do not apply to it<br>
+ * - sticks: stick arbitration (monitor, atomic)<br>
+ * - strategy: deadlock avoidance of the philosophers (waiter, ordered, asymmetric, backoff, chandy-misra)<br>
+ * - admission: seat admission of the waiter strategy (striped, fair)<br>
+ * - executor: threads of the philosophers (platform, virtual). virtual requires a jdk with virtual threads (21+)<br>
+ * - store: storage of the seat data of the model (heap, mapped). mapped keeps it in a memory mapped file and has no ranking<br>
+ * - storefile: file of the mapped store<br>
+ * - fps: frame rate of the view (1-1000). changes of the model are drawn at most at this rate<br>
+ *
+ * @author mabo
+ *
+ */
+public class SimulationConfig {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	private static final String PROPERTY_PREFIX = "philosophers.";
+
+	public static final String HEADLESS = "headless";
+	public static final String PHILS = "phils";
+	public static final String TIME = "time";
+	public static final String DURATION = "duration";
+	public static final String STICKS = "sticks";
+	public static final String EXECUTOR = "executor";
+	public static final String STRATEGY = "strategy";
+	public static final String ADMISSION = "admission";
+	public static final String ENGINE = "engine";
+	public static final String SEED = "seed";
+	public static final String STORE = "store";
+	public static final String STORE_FILE = "storefile";
+	public static final String WARMUP = "warmup";
+	public static final String DISTRIBUTION = "distribution";
+	public static final String REPORT = "report";
+	public static final String FPS = "fps";
+
+	private static final String[] OPTION_PROPERTIES = { PHILS, TIME, DURATION, STICKS, EXECUTOR, STRATEGY, ADMISSION, ENGINE, SEED, STORE, STORE_FILE, WARMUP, DISTRIBUTION, REPORT, FPS };
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	public boolean headless;
+	public int nrOfPhilosophers = 3;
+	public int actionTime = 3000;
+	public int duration = 60;
+	public int warmup = 0;
+	public DistributionMode distributionMode = DistributionMode.UNIFORM;
+	public ReportMode reportMode = ReportMode.TEXT;
+	public StickMode stickMode = StickMode.MONITOR;
+	public ExecutorMode executorMode = ExecutorMode.PLATFORM;
+	public StrategyMode strategyMode = StrategyMode.WAITER;
+	public AdmissionMode admissionMode = AdmissionMode.STRIPED;
+	public EngineMode engineMode = EngineMode.THREADS;
+	public long seed = System.nanoTime();
+	public StoreMode storeMode = StoreMode.HEAP;
+	public File storeFile = new File(System.getProperty("java.io.tmpdir"), "philosophers.state");
+	public int frameRate = 60;
+
+
+//	---------------------------- FACTORIES ----------------------------------
+
+	/**
+	 * @return config of the system properties philosophers.*, checked like the command line
+	 * @throws IllegalArgumentException if a value is invalid or the engine can not simulate the options
+	 */
+	public static SimulationConfig fromSystemProperties()
+	{
+		SimulationConfig config = readSystemProperties();
+		config.validate();
+		return config;
+	}
+
+
+	private static SimulationConfig readSystemProperties()
+	{
+		SimulationConfig config = new SimulationConfig();
+		config.headless = Boolean.getBoolean(PROPERTY_PREFIX + HEADLESS);
+		for (String key : OPTION_PROPERTIES) {
+			String value = System.getProperty(PROPERTY_PREFIX + key);
+			if (value != null)
+				config.set(key, value);
+		}
+		return config;
+	}
+
+
+	/**
+	 * parse command line arguments on top of the system property defaults.
+	 * @param args options of the form -key [value]
+	 * @return config
+	 * @throws IllegalArgumentException if an option is unknown or a value is missing or invalid
+	 */
+	public static SimulationConfig parse(String[] args)
+	{
+		SimulationConfig config = readSystemProperties();
+		if (args == null) {
+			config.validate();
+			return config;
+		}
+		for (int i = 0; i < args.length; i++) {
+			String key = args[i].startsWith("-") ? args[i].substring(1) : args[i];
+			if (HEADLESS.equals(key)) {
+				config.headless = true;
+				continue;
+			}
+			if (i + 1 >= args.length)
+				throw new IllegalArgumentException(String.format("Missing value for option: %s", args[i]));
+			config.set(key, args[++i]);
+		}
+		config.validate();
+		return config;
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	/**
+	 * check the combination of the options.
+	 * @throws IllegalArgumentException if the engine can not simulate the options
+	 */
+	void validate()
+	{
+		if (engineMode != EngineMode.DES)
+			return;
+		if (strategyMode != StrategyMode.WAITER)
+			throw new IllegalArgumentException(String.format("Option -%s %s is not supported by -%s des (waiter only)", STRATEGY, strategyMode.toString().toLowerCase(), ENGINE));
+		if (storeMode != StoreMode.HEAP)
+			throw new IllegalArgumentException(String.format("Option -%s %s is not supported by -%s des (heap only)", STORE, storeMode.toString().toLowerCase(), ENGINE));
+		SimulationConfig defaults = new SimulationConfig();
+		if (stickMode != defaults.stickMode || executorMode != defaults.executorMode || admissionMode != defaults.admissionMode)
+			Logger4Philosophers.logger4Philosophers.warn(String.format("Options -%s, -%s and -%s are ignored by -%s des", STICKS, EXECUTOR, ADMISSION, ENGINE));
+	}
+
+
+	void set(String key, String value)
+	{
+		switch (key) {
+		case PHILS:
+			nrOfPhilosophers = parseAtLeast(key, value, 3);
+			break;
+		case TIME:
+			actionTime = parseAtLeast(key, value, 1);
+			break;
+		case DURATION:
+			duration = parseAtLeast(key, value, 1);
+			break;
+		case STICKS:
+			stickMode = parseEnum(key, value, StickMode.getMode(value));
+			break;
+		case EXECUTOR:
+			executorMode = parseEnum(key, value, ExecutorMode.getMode(value));
+			break;
+		case STRATEGY:
+			strategyMode = parseEnum(key, value, StrategyMode.getMode(value));
+			break;
+		case ADMISSION:
+			admissionMode = parseEnum(key, value, AdmissionMode.getMode(value));
+			break;
+		case ENGINE:
+			engineMode = parseEnum(key, value, EngineMode.getMode(value));
+			break;
+		case SEED:
+			seed = parseLong(key, value);
+			break;
+		case STORE:
+			storeMode = parseEnum(key, value, StoreMode.getMode(value));
+			break;
+		case STORE_FILE:
+			storeFile = new File(value);
+			break;
+		case WARMUP:
+			warmup = parseAtLeast(key, value, 0);
+			break;
+		case DISTRIBUTION:
+			distributionMode = parseEnum(key, value, DistributionMode.getMode(value));
+			break;
+		case REPORT:
+			reportMode = parseEnum(key, value, ReportMode.getMode(value));
+			break;
+		case FPS:
+			frameRate = parseBetween(key, value, 1, 1000);
+			break;
+		default:
+			throw new IllegalArgumentException(String.format("Unknown option: -%s", key));
+		}
+	}
+
+
+	private static int parseAtLeast(String key, String value, int min)
+	{
+		try {
+			int result = Integer.parseInt(value);
+			if (result >= min)
+				return result;
+		} catch (NumberFormatException e) {
+			// handled below
+		}
+		throw new IllegalArgumentException(String.format("Option -%s requires a number >= %d: %s", key, min, value));
+	}
+
+
+	private static int parseBetween(String key, String value, int min, int max)
+	{
+		try {
+			int result = Integer.parseInt(value);
+			if (result >= min && result <= max)
+				return result;
+		} catch (NumberFormatException e) {
+			// handled below
+		}
+		throw new IllegalArgumentException(String.format("Option -%s requires a number between %d and %d: %s", key, min, max, value));
+	}
+
+
+	private static long parseLong(String key, String value)
+	{
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(String.format("Option -%s requires a number: %s", key, value));
+		}
+	}
+
+
+	private static <E extends Enum<E>> E parseEnum(String key, String value, E result)
+	{
+		if (result == null)
+			throw new IllegalArgumentException(String.format("Unknown value for option -%s: %s", key, value));
+		return result;
+	}
+
+
+	/**
+	 * @return the options in effect for a run as report entries, for the config of a RunReport. the des engine has no sticks, executor and admission
+	 */
+	public RunReport toReport()
+	{
+		RunReport report = new RunReport();
+		report.put(PHILS, nrOfPhilosophers).put(TIME, actionTime).put(DISTRIBUTION, distributionMode.toString().toLowerCase())
+				.put(DURATION, duration).put(WARMUP, warmup).put(ENGINE, engineMode.toString().toLowerCase());
+		if (engineMode != EngineMode.DES)
+			report.put(STICKS, stickMode.toString().toLowerCase()).put(EXECUTOR, executorMode.toString().toLowerCase());
+		report.put(STRATEGY, strategyMode.toString().toLowerCase());
+		if (engineMode != EngineMode.DES)
+			report.put(ADMISSION, admissionMode.toString().toLowerCase());
+		report.put(STORE, storeMode.toString().toLowerCase());
+		return report.put(SEED, seed);
+	}
+
+
+	@Override
+	public String toString() {
+		return toReport().toString();
+	}
+
+}
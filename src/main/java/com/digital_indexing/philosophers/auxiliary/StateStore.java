@@ -0,0 +1,56 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.io.Closeable;
+
+/**
+ * Storage of the per seat data of the model.<br>
+ * <p>
+ * - state: ordinal of the state of the philosopher<br>
+ * - stick: position of the stick of the area with the same nr (LEFT, MIDDLE or RIGHT)<br>
+ * - time: accumulated philosophizing time in seconds. only the philosopher of the seat adds to it<br>
+ * - meals: number of finished meals. only the philosopher of the seat increments it<br>
+ *
+ * @author mabo
+ *
+ */
+public interface StateStore extends Closeable {
+
+	public static final int LEFT = 0;
+	public static final int MIDDLE = 1;
+	public static final int RIGHT = 2;
+
+	public int size();
+
+	public void setState(int seat, int state);
+
+	public int getState(int seat);
+
+	public void setStick(int areaNr, int position);
+
+	public int getStick(int areaNr);
+
+	/**
+	 * @return the new time
+	 */
+	public double addTime(int seat, double seconds);
+
+	public double getTime(int seat);
+
+	public void incrementMeals(int seat);
+
+	public long getMeals(int seat);
+
+	@Override
+	public void close();
+
+}
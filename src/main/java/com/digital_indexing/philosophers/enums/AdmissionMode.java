@@ -0,0 +1,25 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.enums;
+
+public enum AdmissionMode {
+	
+	STRIPED, FAIR;
+	
+	public static AdmissionMode getMode(String mode) {
+		for (AdmissionMode m : values()) {
+			if (m.toString().equalsIgnoreCase(mode))
+				return m;
+		}
+		return null;
+	}
+
+}
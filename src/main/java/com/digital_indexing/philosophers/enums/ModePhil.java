@@ -52,5 +52,29 @@ public enum ModePhil {
 			return null;
 		}
 	}
+	
+	/**
+	 * letter of the philosopher in the circles and in the ranking. the letters go up to Z, the philosophers after them are numbered.
+	 */
+	public String getLetter(int philNr) {
+		if (philNr == 0) {
+			switch (this) {
+			case SOCIALIST:
+				return "M";
+			case NIHILIST:
+				return "N";
+			case NORMALO:
+				return "A";
+			default:
+				return "";
+			}
+		}
+		if (this == OFF)
+			return "";
+		int codePoint = (this == NORMALO ? 'A' : '@') + philNr;
+		if (codePoint <= 'Z')
+			return String.valueOf((char) codePoint);
+		return String.valueOf(philNr + 1);
+	}
 
 }
@@ -0,0 +1,25 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.enums;
+
+public enum OverflowPolicy {
+	
+	DROP_OLDEST, COALESCE, BLOCK;
+	
+	public static OverflowPolicy getMode(String mode) {
+		for (OverflowPolicy m : values()) {
+			if (m.toString().equalsIgnoreCase(mode.replace('-', '_')))
+				return m;
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,23 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.listeners;
+
+/**
+ * Event that may be replaced by a newer event with the same key before it is delivered (overflow policy COALESCE of the EventBus).
+ * 
+ * @author mabo
+ *
+ */
+public interface CoalescableEvent {
+	
+	public long getCoalesceKey();
+
+}
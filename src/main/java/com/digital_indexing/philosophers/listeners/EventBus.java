@@ -0,0 +1,318 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.listeners;
+
+import java.util.Collections;
+import java.util.EventObject;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.swing.SwingUtilities;
+
+import com.digital_indexing.philosophers.auxiliary.LatencyHistogram;
+import com.digital_indexing.philosophers.auxiliary.Logger4Philosophers;
+import com.digital_indexing.philosophers.enums.DeliveryMode;
+import com.digital_indexing.philosophers.enums.OverflowPolicy;
+
+/**
+ * Event bus with many subscribers.<br>
+ * <p>
+ * Each subscription has an event type, a delivery thread and its own bounded queue with an overflow policy:<br>
+ * - EDT: the queue is drained on the event dispatch thread. one drain task is scheduled at a time<br>
+ * - DEDICATED: the queue is drained by a daemon thread of the subscription<br>
+ * - CALLER: no queue, the subscriber is called by the publishing thread<br>
+ * <p>
+ * - DROP_OLDEST: if the queue is full the oldest event is dropped<br>
+ * - COALESCE: a pending event is replaced by a newer event with the same key (CoalescableEvent). other events are queued with DROP_OLDEST<br>
+ * - BLOCK: the publisher waits for free space<br>
+ * <p>
+ * So a slow subscriber only stalls the publishers if it asked for it (BLOCK).
+ * Events published by the event dispatch thread to an EDT subscription are delivered at once, after the pending ones.<br>
+ * The dispatch latency (scheduling of a drain until it runs on the delivery thread) is recorded per subscription.
+ * The time of the scheduling is the signal itself (0: no drain scheduled), so the delivery thread never sees the signal without its time.
+ *
+ * @author mabo
+ *
+ */
+public class EventBus {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<Subscription>();
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	/**
+	 * @param type events of this type (or a subtype) are delivered
+	 * @param subscriber
+	 * @param mode delivery thread
+	 * @param policy overflow policy
+	 * @param capacity size of the queue
+	 * @return subscription, to be cancelled by the subscriber
+	 */
+	public Subscription subscribe(Class<? extends EventObject> type, EventSubscriber subscriber, DeliveryMode mode, OverflowPolicy policy, int capacity)
+	{
+		Subscription s = new Subscription(this, type, subscriber, mode, policy, capacity);
+		subscriptions.add(s);
+		if (mode == DeliveryMode.DEDICATED)
+			s.start();
+		return s;
+	}
+
+
+	/**
+	 * offer the event to all subscriptions of its type.
+	 * @throws InterruptedException if a BLOCK subscription is full and the publisher is interrupted while waiting
+	 */
+	public void publish(EventObject e) throws InterruptedException
+	{
+		for (Subscription s : subscriptions) {
+			if (s.type.isInstance(e))
+				s.offer(e);
+		}
+	}
+
+
+	/**
+	 * publishers check this before they create an event.
+	 * @return true if there is a subscription for events of the type
+	 */
+	public boolean hasSubscribers(Class<? extends EventObject> type)
+	{
+		for (Subscription s : subscriptions) {
+			if (s.type.isAssignableFrom(type))
+				return true;
+		}
+		return false;
+	}
+
+
+	public List<Subscription> getSubscriptions() {
+		return Collections.unmodifiableList(subscriptions);
+	}
+
+
+	public void cancelAll() {
+		for (Subscription s : subscriptions)
+			s.cancel();
+	}
+
+
+//	---------------------------- SUBSCRIPTION ----------------------------------
+
+	public static class Subscription {
+
+		private EventBus bus;
+		private Class<? extends EventObject> type;
+		private EventSubscriber subscriber;
+		private DeliveryMode mode;
+		private OverflowPolicy policy;
+
+		private ArrayBlockingQueue<EventObject> queue;
+		private ConcurrentHashMap<Long, EventObject> latest;
+		private ConcurrentLinkedQueue<Long> keys;
+		private int capacity;
+
+		private AtomicLong scheduledAt = new AtomicLong();
+		private LatencyHistogram dispatchLatency = new LatencyHistogram();
+		private Runnable drainTask;
+		private Thread consumer;
+		private volatile boolean cancelled;
+
+		private LongAdder delivered = new LongAdder();
+		private LongAdder dropped = new LongAdder();
+		private LongAdder coalesced = new LongAdder();
+
+
+		private Subscription(EventBus bus, Class<? extends EventObject> type, EventSubscriber subscriber, DeliveryMode mode, OverflowPolicy policy, int capacity)
+		{
+			this.bus = bus;
+			this.type = type;
+			this.subscriber = subscriber;
+			this.mode = mode;
+			this.policy = policy;
+			this.capacity = Math.max(1, capacity);
+			queue = new ArrayBlockingQueue<EventObject>(this.capacity);
+			if (policy == OverflowPolicy.COALESCE) {
+				latest = new ConcurrentHashMap<Long, EventObject>();
+				keys = new ConcurrentLinkedQueue<Long>();
+			}
+			drainTask = new Runnable() {
+				@Override
+				public void run() {
+					long at = scheduledAt.getAndSet(0);
+					dispatchLatency.record(System.nanoTime() - at);
+					drain();
+				}
+			};
+		}
+
+
+		private void start()
+		{
+			consumer = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					while (!cancelled) {
+						//wait until an event has been offered, then take back the signal and drain
+						long at;
+						while ((at = scheduledAt.getAndSet(0)) == 0 && !cancelled)
+							LockSupport.park(this);
+						if (at != 0)
+							dispatchLatency.record(System.nanoTime() - at);
+						drain();
+					}
+				}
+			}, "EventBus-" + subscriber.getClass().getSimpleName());
+			consumer.setDaemon(true);
+			consumer.start();
+		}
+
+
+		private void offer(EventObject e) throws InterruptedException
+		{
+			if (cancelled)
+				return;
+			if (mode == DeliveryMode.CALLER) {
+				deliver(e);
+				return;
+			}
+			if (mode == DeliveryMode.EDT && SwingUtilities.isEventDispatchThread()) {
+				drain();
+				deliver(e);
+				return;
+			}
+			enqueue(e);
+			//signal the delivery thread, once per drain. the signal is the time (never 0)
+			if (scheduledAt.get() != 0)
+				return;
+			long now = System.nanoTime();
+			if (scheduledAt.compareAndSet(0, now == 0 ? 1 : now)) {
+				if (mode == DeliveryMode.EDT)
+					SwingUtilities.invokeLater(drainTask);
+				else
+					LockSupport.unpark(consumer);
+			}
+		}
+
+
+		private void enqueue(EventObject e) throws InterruptedException
+		{
+			if (policy == OverflowPolicy.COALESCE && e instanceof CoalescableEvent) {
+				Long key = ((CoalescableEvent) e).getCoalesceKey();
+				if (latest.put(key, e) == null)
+					keys.offer(key);
+				else
+					coalesced.increment();
+				return;
+			}
+			if (policy == OverflowPolicy.BLOCK) {
+				queue.put(e);
+				return;
+			}
+			while (!queue.offer(e)) {
+				if (queue.poll() != null)
+					dropped.increment();
+			}
+		}
+
+
+		private void drain()
+		{
+			EventObject e;
+			while ((e = queue.poll()) != null)
+				deliver(e);
+			if (keys == null)
+				return;
+			Long key;
+			while ((key = keys.poll()) != null) {
+				//removed together with its key. a newer event with this key enqueues the key again
+				e = latest.remove(key);
+				if (e != null)
+					deliver(e);
+			}
+		}
+
+
+		private void deliver(EventObject e)
+		{
+			if (cancelled)
+				return;
+			try {
+				subscriber.eventPublished(e);
+				delivered.increment();
+			}
+			catch (RuntimeException ex) {
+				Logger4Philosophers.logger4Philosophers.error(String.format("Subscriber %s failed: %s", subscriber, ex));
+			}
+		}
+
+
+		/**
+		 * stop the delivery. pending events are discarded.
+		 */
+		public void cancel()
+		{
+			cancelled = true;
+			bus.subscriptions.remove(this);
+			queue.clear();
+			if (keys != null) {
+				keys.clear();
+				latest.clear();
+			}
+			if (consumer != null)
+				LockSupport.unpark(consumer);
+		}
+
+
+	//	----------------------------- GETTERS -----------------------------
+
+		public DeliveryMode getMode() {
+			return mode;
+		}
+
+		public OverflowPolicy getPolicy() {
+			return policy;
+		}
+
+		public int getCapacity() {
+			return capacity;
+		}
+
+		public int getPending() {
+			return queue.size() + (keys == null ? 0 : latest.size());
+		}
+
+		public long getDelivered() {
+			return delivered.sum();
+		}
+
+		public long getDropped() {
+			return dropped.sum();
+		}
+
+		public long getCoalesced() {
+			return coalesced.sum();
+		}
+
+		public LatencyHistogram getDispatchLatency() {
+			return dispatchLatency;
+		}
+	}
+
+}
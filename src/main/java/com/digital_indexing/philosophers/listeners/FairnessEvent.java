@@ -0,0 +1,33 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.listeners;
+
+import java.util.EventObject;
+
+public class FairnessEvent extends EventObject {
+	
+	public long window;
+	public double jainIndex;
+	public long meals;
+
+	/**
+	 * @param window nr of the finished window
+	 * @param jainIndex fairness of the meal counts in the window (1.0: all equal, 1/n: one philosopher ate alone)
+	 * @param meals meals in the window
+	 */
+	public FairnessEvent(Object source, long window, double jainIndex, long meals) {
+		super(source);
+		this.window = window;
+		this.jainIndex = jainIndex;
+		this.meals = meals;
+	}
+
+}
@@ -0,0 +1,21 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.listeners;
+
+import java.util.EventListener;
+
+public interface FairnessListener extends EventListener {
+	
+	public void starvationDetected(StarvationEvent e);
+	
+	public void fairnessDropped(FairnessEvent e);
+
+}
@@ -14,7 +14,7 @@ import java.util.EventObject;
 
 import com.digital_indexing.philosophers.enums.StatePhil;
 
-public class PhilChangedEvent extends EventObject {
+public class PhilChangedEvent extends EventObject implements CoalescableEvent {
 
 	public StatePhil state;
 	public int philNr;
@@ -24,5 +24,10 @@ public class PhilChangedEvent extends EventObject {
 		this.state = state;
 		this.philNr = philNr;
 	}
+	
+	@Override
+	public long getCoalesceKey() {
+		return (1L << 32) | philNr;
+	}
 
 }
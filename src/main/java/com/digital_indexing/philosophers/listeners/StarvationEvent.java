@@ -0,0 +1,36 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.listeners;
+
+import java.util.EventObject;
+
+public class StarvationEvent extends EventObject {
+	
+	public int philNr;
+	public int neighborNr;
+	public long sinceLastMeal;
+	public long neighborInterval;
+
+	/**
+	 * @param philNr starving philosopher
+	 * @param neighborNr neighbor who just finished a meal
+	 * @param sinceLastMeal nanoseconds since the last meal of the starving philosopher
+	 * @param neighborInterval nanoseconds between the last two meals of the neighbor
+	 */
+	public StarvationEvent(Object source, int philNr, int neighborNr, long sinceLastMeal, long neighborInterval) {
+		super(source);
+		this.philNr = philNr;
+		this.neighborNr = neighborNr;
+		this.sinceLastMeal = sinceLastMeal;
+		this.neighborInterval = neighborInterval;
+	}
+
+}
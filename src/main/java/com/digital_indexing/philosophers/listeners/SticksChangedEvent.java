@@ -12,7 +12,7 @@ package com.digital_indexing.philosophers.listeners;
 
 import java.util.EventObject;
 
-public class SticksChangedEvent extends EventObject {
+public class SticksChangedEvent extends EventObject implements CoalescableEvent {
 	
 	public int firstNr;
 	public int secondNr;
@@ -26,5 +26,10 @@ public class SticksChangedEvent extends EventObject {
 		this.secondNr = secondNr;
 		this.secondState = secondState;
 	}
+	
+	@Override
+	public long getCoalesceKey() {
+		return (2L << 32) | (firstNr / 3);
+	}
 
 }
@@ -11,22 +11,30 @@
 package com.digital_indexing.philosophers.listeners;
 
 import java.util.EventObject;
-import java.util.TreeSet;
-
-import com.digital_indexing.philosophers.auxiliary.TimeData;
 
 
+/**
+ * Change of the time of one philosopher and its move in the ranking.<br>
+ * The version is the version of the ranking after the change. A listener that missed a version reads a snapshot of the ranking.
+ * 
+ * @author mabo
+ *
+ */
 public class TimeChangedEvent extends EventObject {
 	
 	public int philNr;
+	public int oldRank;
+	public int newRank;
 	public double newTime;
-	public TreeSet<TimeData> timeData;
+	public long version;
 
-	public TimeChangedEvent(Object source, int philNr, double newTime, TreeSet<TimeData> timeData) {
+	public TimeChangedEvent(Object source, int philNr, int oldRank, int newRank, double newTime, long version) {
 		super(source);
-		this.timeData = timeData;
 		this.philNr = philNr;
+		this.oldRank = oldRank;
+		this.newRank = newRank;
 		this.newTime = newTime;
+		this.version = version;
 	}
 
 }
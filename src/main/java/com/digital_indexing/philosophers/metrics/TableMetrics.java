@@ -0,0 +1,267 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.digital_indexing.philosophers.auxiliary.LatencyHistogram;
+import com.digital_indexing.philosophers.auxiliary.Logger4Philosophers;
+import com.digital_indexing.philosophers.enums.DeliveryMode;
+import com.digital_indexing.philosophers.listeners.EventBus;
+import com.digital_indexing.philosophers.system.ControllerPhil;
+import com.digital_indexing.philosophers.system.ModelPhil;
+import com.digital_indexing.philosophers.system.RenderLoop;
+import com.digital_indexing.philosophers.system.Supervisor;
+
+/**
+ * Runtime metrics of the table, exposed as platform MBean for jconsole or VisualVM.<br>
+ * <p>
+ * - meals: LongAdder, incremented by the philosophers. meals/sec is sampled at most once per second by the readers<br>
+ * - seated count: read from the supervisor of ControllerPhil<br>
+ * - monitor contention: number of times a philosopher had to wait for the monitor of an area (MonitorStickArbiter). only the two neighbors of an area count into its slot.
+ * the slots are PADDING longs apart, so the counters of neighboring areas are not on the same cache line.
+ * they are only allocated for the monitor arbiter (countMonitorContention), the other arbiters have no monitors<br>
+ * - dispatch latency: time from scheduling a drain on the event dispatch thread until it runs, merged from the EDT subscriptions of the model<br>
+ * - ranking update: time of the ranking change of ModelPhil under the write lock<br>
+ * - frames: rendered, coalesced and dropped frames of the render loop of the view. 0 without a view<br>
+ * <p>
+ * Writers only touch striped or per area counters, so recording does not become a bottleneck.
+ *
+ * @author mabo
+ *
+ */
+public class TableMetrics implements TableMetricsMBean {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	public static final String OBJECT_NAME = "com.digital_indexing.philosophers:type=TableMetrics";
+
+	private static final long SAMPLE_INTERVAL = 1000000000L;
+	private static final int PADDING = 8;
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private static TableMetrics instance;
+
+	private LongAdder meals = new LongAdder();
+	private volatile AtomicLongArray monitorContention = new AtomicLongArray(0);
+	private LongAdder rankingUpdates = new LongAdder();
+	private LongAdder rankingNanos = new LongAdder();
+	private LongAccumulator maxRankingNanos = new LongAccumulator(new LongBinaryOperator() {
+		@Override
+		public long applyAsLong(long left, long right) {
+			return Math.max(left, right);
+		}
+	}, 0);
+
+	private volatile RenderLoop renderLoop;
+
+	private long sampleNanos = System.nanoTime();
+	private long sampleMeals;
+	private double mealsPerSecond;
+	private boolean registered;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	private TableMetrics() {
+	}
+
+	public static synchronized TableMetrics getSingleInstance() {
+		if (instance == null)
+			instance = new TableMetrics();
+		return instance;
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	/**
+	 * register the MBean at the platform MBean server. does nothing if it is registered already.
+	 */
+	public synchronized void register()
+	{
+		if (registered)
+			return;
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name))
+				server.registerMBean(this, name);
+			registered = true;
+		} catch (JMException e) {
+			Logger4Philosophers.logger4Philosophers.warn(String.format("Could not register metrics MBean: %s", e.getMessage()));
+		}
+	}
+
+
+	/**
+	 * new table: no contention counters until a monitor arbiter asks for them.
+	 */
+	public void reset() {
+		monitorContention = new AtomicLongArray(0);
+	}
+
+	/**
+	 * one padded contention counter per area. invoked by the monitor arbiter of a new table.
+	 */
+	public void countMonitorContention(int nrOfAreas) {
+		monitorContention = new AtomicLongArray(nrOfAreas * PADDING);
+	}
+
+	/**
+	 * @param renderLoop of the view, null without a view
+	 */
+	public void setRenderLoop(RenderLoop renderLoop) {
+		this.renderLoop = renderLoop;
+	}
+
+	public void mealFinished() {
+		meals.increment();
+	}
+
+	public void monitorContended(int areaNr) {
+		AtomicLongArray counts = monitorContention;
+		int slot = areaNr * PADDING;
+		if (slot < counts.length())
+			counts.incrementAndGet(slot);
+	}
+
+	public void rankingUpdated(long nanos) {
+		rankingUpdates.increment();
+		rankingNanos.add(nanos);
+		maxRankingNanos.accumulate(nanos);
+	}
+
+
+//	----------------------------- GETTERS -----------------------------
+
+	@Override
+	public long getMealsCompleted() {
+		return meals.sum();
+	}
+
+	@Override
+	public synchronized double getMealsPerSecond()
+	{
+		long now = System.nanoTime();
+		if (now - sampleNanos >= SAMPLE_INTERVAL) {
+			long total = meals.sum();
+			mealsPerSecond = (total - sampleMeals) * 1e9 / (now - sampleNanos);
+			sampleNanos = now;
+			sampleMeals = total;
+		}
+		return mealsPerSecond;
+	}
+
+	@Override
+	public int getSeatedCount() {
+		Supervisor supervisor = ControllerPhil.getSupervisor();
+		return supervisor == null ? 0 : supervisor.getSeatedCount();
+	}
+
+	@Override
+	public long getMonitorContentionTotal() {
+		AtomicLongArray counts = monitorContention;
+		long total = 0;
+		for (int i = 0; i < counts.length(); i += PADDING)
+			total += counts.get(i);
+		return total;
+	}
+
+	@Override
+	public long[] getMonitorContention() {
+		AtomicLongArray counts = monitorContention;
+		long[] result = new long[counts.length() / PADDING];
+		for (int i = 0; i < result.length; i++)
+			result[i] = counts.get(i * PADDING);
+		return result;
+	}
+
+	@Override
+	public long getDispatchCount() {
+		return getDispatchLatency().getCount();
+	}
+
+	@Override
+	public double getDispatchLatencyP99Millis() {
+		return getDispatchLatency().getValueAtPercentile(99) / 1e6;
+	}
+
+	@Override
+	public double getDispatchLatencyMaxMillis() {
+		return getDispatchLatency().getMaxNanos() / 1e6;
+	}
+
+	@Override
+	public long getRankingUpdates() {
+		return rankingUpdates.sum();
+	}
+
+	@Override
+	public double getRankingUpdateMeanMicros() {
+		long count = rankingUpdates.sum();
+		return count == 0 ? 0.0 : rankingNanos.sum() / 1e3 / count;
+	}
+
+	@Override
+	public double getRankingUpdateMaxMicros() {
+		return maxRankingNanos.get() / 1e3;
+	}
+
+	@Override
+	public int getFrameRate() {
+		RenderLoop loop = renderLoop;
+		return loop == null ? 0 : loop.getFrameRate();
+	}
+
+	@Override
+	public long getRenderedFrames() {
+		RenderLoop loop = renderLoop;
+		return loop == null ? 0 : loop.getRenderedFrames();
+	}
+
+	@Override
+	public long getCoalescedFrames() {
+		RenderLoop loop = renderLoop;
+		return loop == null ? 0 : loop.getCoalescedFrames();
+	}
+
+	@Override
+	public long getDroppedFrames() {
+		RenderLoop loop = renderLoop;
+		return loop == null ? 0 : loop.getDroppedFrames();
+	}
+
+
+	/**
+	 * @return merged dispatch latency of the EDT subscriptions of the model
+	 */
+	public LatencyHistogram getDispatchLatency()
+	{
+		LatencyHistogram result = new LatencyHistogram();
+		for (EventBus.Subscription s : ModelPhil.getSingleInstance().getEventBus().getSubscriptions()) {
+			if (s.getMode() == DeliveryMode.EDT)
+				result.merge(s.getDispatchLatency());
+		}
+		return result;
+	}
+
+}
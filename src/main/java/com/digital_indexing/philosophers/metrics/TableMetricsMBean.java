@@ -0,0 +1,51 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.metrics;
+
+/**
+ * Management interface of TableMetrics (platform MBean com.digital_indexing.philosophers:type=TableMetrics).
+ *
+ * @author mabo
+ *
+ */
+public interface TableMetricsMBean {
+
+	public long getMealsCompleted();
+
+	public double getMealsPerSecond();
+
+	public int getSeatedCount();
+
+	public long getMonitorContentionTotal();
+
+	public long[] getMonitorContention();
+
+	public long getDispatchCount();
+
+	public double getDispatchLatencyP99Millis();
+
+	public double getDispatchLatencyMaxMillis();
+
+	public long getRankingUpdates();
+
+	public double getRankingUpdateMeanMicros();
+
+	public double getRankingUpdateMaxMicros();
+
+	public int getFrameRate();
+
+	public long getRenderedFrames();
+
+	public long getCoalescedFrames();
+
+	public long getDroppedFrames();
+
+}
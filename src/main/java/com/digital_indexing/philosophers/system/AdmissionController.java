@@ -0,0 +1,237 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Admission of the philosophers to the table by semaphores.<br>
+ * <p>
+ * The seat budget (number of seats - 1) is split across stripes. Each stripe is a semaphore holding a part of the budget.<br>
+ * - striped: a philosopher tries its home stripe first, then all other stripes without blocking. 
+ * Only if no stripe has a free seat it queues up and parks. A released seat is handed off to the first queued philosopher,
+ * so a waiter is woken exactly once, by the seat it gets<br>
+ * - fair: one fair semaphore holds the whole budget, so the philosophers are admitted in FIFO order<br>
+ * <p>
+ * A seat is always given back to the stripe it was taken from, so at most n-1 philosophers sit at the table.<br>
+ * Counters: current and max. queue depth (philosophers waiting for a seat), number of admissions, total and max. admission latency.
+ * 
+ * @author mabo
+ *
+ */
+public class AdmissionController {
+	
+//	---------------------------- ATTRIBUTES ----------------------------------
+	
+	private static final int WAITING = -1;
+	private static final int CANCELLED = -2;
+	
+	private Semaphore[] stripes;
+	private int seats;
+	private boolean fair;
+	private ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<Waiter>();
+	
+	private AtomicInteger queueDepth = new AtomicInteger();
+	private AtomicInteger maxQueueDepth = new AtomicInteger();
+	private LongAdder admissions = new LongAdder();
+	private LongAdder admissionNanos = new LongAdder();
+	private AtomicLong maxAdmissionNanos = new AtomicLong();
+	
+	
+//	---------------------------- CONSTRUCTOR ----------------------------------
+	
+	/**
+	 * @param seats size of the seat budget
+	 * @param nrOfStripes ignored if fair
+	 * @param fair FIFO admission by one fair semaphore
+	 */
+	public AdmissionController(int seats, int nrOfStripes, boolean fair) 
+	{
+		this.seats = seats;
+		this.fair = fair;
+		int n = fair ? 1 : Math.max(1, Math.min(nrOfStripes, seats));
+		stripes = new Semaphore[n];
+		for (int i = 0; i < n; i++) {
+			int permits = seats / n + (i < seats % n ? 1 : 0);
+			stripes[i] = new Semaphore(permits, fair);
+		}
+	}
+	
+	
+//	---------------------------- METHODS ----------------------------------
+	
+	/**
+	 * blocks until a seat is free.
+	 * @param philNr
+	 * @return nr of the stripe the seat has been taken from. has to be passed to release
+	 */
+	public int acquire(int philNr) throws InterruptedException 
+	{
+		long start = System.nanoTime();
+		int home = philNr % stripes.length;
+		//an untimed tryAcquire barges even on a fair semaphore, a timed one queues behind the waiting philosophers
+		int stripe = fair ? (stripes[0].tryAcquire(0, TimeUnit.NANOSECONDS) ? 0 : -1) : tryAcquire(home);
+		if (stripe < 0)
+			stripe = awaitSeat(home);
+		record(System.nanoTime() - start);
+		return stripe;
+	}
+	
+	
+	/**
+	 * gives the seat back to its stripe and hands a seat off to the first queued philosopher, if any.
+	 */
+	public void release(int stripe) 
+	{
+		stripes[stripe].release();
+		//a waiter queues up before it scans the stripes a last time, so either it sees the seat or the seat sees it
+		while (!waiters.isEmpty()) {
+			int taken = tryAcquire(stripe);
+			if (taken < 0)
+				return;		//someone else took the seat
+			Waiter waiter = waiters.poll();
+			if (waiter != null && waiter.stripe.compareAndSet(WAITING, taken)) {
+				LockSupport.unpark(waiter.thread);
+				return;
+			}
+			stripes[taken].release();
+		}
+	}
+	
+	
+	private int tryAcquire(int home) 
+	{
+		for (int i = 0; i < stripes.length; i++) {
+			int stripe = (home + i) % stripes.length;
+			if (stripes[stripe].tryAcquire())
+				return stripe;
+		}
+		return -1;
+	}
+	
+	
+	private int awaitSeat(int home) throws InterruptedException 
+	{
+		int depth = queueDepth.incrementAndGet();
+		updateMax(maxQueueDepth, depth);
+		try {
+			if (stripes.length == 1) {
+				stripes[0].acquire();
+				return 0;
+			}
+			Waiter waiter = new Waiter();
+			waiters.add(waiter);
+			int stripe = tryAcquire(home);
+			if (stripe >= 0) {
+				if (waiter.stripe.compareAndSet(WAITING, CANCELLED))
+					return stripe;
+				//a seat has been handed off in the meantime as well
+				release(stripe);
+				return waiter.stripe.get();
+			}
+			while (waiter.stripe.get() == WAITING) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					if (waiter.stripe.compareAndSet(WAITING, CANCELLED))
+						throw new InterruptedException();
+					//the seat came along with the interrupt
+					Thread.currentThread().interrupt();
+				}
+			}
+			return waiter.stripe.get();
+		}
+		finally {
+			queueDepth.decrementAndGet();
+		}
+	}
+	
+	
+	private void record(long nanos) 
+	{
+		admissions.increment();
+		admissionNanos.add(nanos);
+		long max = maxAdmissionNanos.get();
+		while (nanos > max && !maxAdmissionNanos.compareAndSet(max, nanos))
+			max = maxAdmissionNanos.get();
+	}
+	
+	
+	/**
+	 * start new maxima, e.g. after a warm-up. the max. queue depth starts at the current depth.
+	 * the sums (admissions, admission nanos) keep counting, readers take the difference of two reads.
+	 */
+	public void resetMaxima() 
+	{
+		maxAdmissionNanos.set(0);
+		maxQueueDepth.set(queueDepth.get());
+	}
+	
+	
+	private static void updateMax(AtomicInteger max, int value) 
+	{
+		int current = max.get();
+		while (value > current && !max.compareAndSet(current, value))
+			current = max.get();
+	}
+	
+	
+//	----------------------------- GETTERS -----------------------------
+	
+	public int getSeatedCount() 
+	{
+		int free = 0;
+		for (Semaphore stripe : stripes)
+			free += stripe.availablePermits();
+		return seats - free;
+	}
+	
+	public int getNrOfStripes() {
+		return stripes.length;
+	}
+	
+	public int getQueueDepth() {
+		return queueDepth.get();
+	}
+	
+	public int getMaxQueueDepth() {
+		return maxQueueDepth.get();
+	}
+	
+	public long getAdmissions() {
+		return admissions.sum();
+	}
+	
+	public long getAdmissionNanos() {
+		return admissionNanos.sum();
+	}
+	
+	public long getMaxAdmissionNanos() {
+		return maxAdmissionNanos.get();
+	}
+	
+	
+//	---------------------------- WAITER ----------------------------------
+	
+	/**
+	 * a queued philosopher. stripe is WAITING until a seat is handed off (the stripe of the seat) or the philosopher gave up (CANCELLED).
+	 */
+	private static final class Waiter {
+		final Thread thread = Thread.currentThread();
+		final AtomicInteger stripe = new AtomicInteger(WAITING);
+	}
+
+}
@@ -0,0 +1,64 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Asymmetric ordering: philosophers with an even number take the right stick first, philosophers with an odd number the left one.<br>
+ * Neighbors compete for their shared stick first, so no cycle of waiting philosophers can form.
+ * 
+ * @author mabo
+ *
+ */
+public class AsymmetricStrategy implements DeadlockStrategy {
+	
+//	---------------------------- ATTRIBUTES ----------------------------------
+	
+	private StickArbiter sticks;
+	
+	
+//	---------------------------- CONSTRUCTOR ----------------------------------
+	
+	public AsymmetricStrategy(StickArbiter sticks) {
+		this.sticks = sticks;
+	}
+	
+	
+//	---------------------------- METHODS ----------------------------------
+
+	@Override
+	public void sit(int philNr) {
+	}
+
+	@Override
+	public void takeSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException {
+		if (philNr % 2 == 0) {
+			sticks.takeStick(philNr, rightAreaNr);
+			sticks.takeStick(philNr, leftAreaNr);
+		}
+		else {
+			sticks.takeStick(philNr, leftAreaNr);
+			sticks.takeStick(philNr, rightAreaNr);
+		}
+	}
+
+	@Override
+	public void putSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException {
+		sticks.putStick(philNr, rightAreaNr);
+		sticks.putStick(philNr, leftAreaNr);
+	}
+
+	@Override
+	public void leave(int philNr) {
+	}
+
+}
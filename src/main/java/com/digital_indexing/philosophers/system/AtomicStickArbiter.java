@@ -0,0 +1,145 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free stick arbitration.<br>
+ * <p>
+ * - owners: one slot per area holding the nr of the philosopher owning the stick, or FREE. A stick is claimed and released by a single compare-and-set.<br>
+ * - waiters: one slot per area holding the thread parked for the stick. Only the two neighbors of an area compete for its stick, so one slot is enough.<br>
+ * <p>
+ * A philosopher spins a bounded number of times before it registers as waiter and parks.
+ * The releasing philosopher unparks the registered waiter after its compare-and-set.
+ *
+ * @author mabo
+ *
+ */
+public class AtomicStickArbiter implements StickArbiter {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	static final int FREE = -1;
+	static final int DEFAULT_SPINS = 128;
+
+	private ModelPhil model;
+	private AtomicIntegerArray owners;
+	private AtomicReferenceArray<Thread> waiters;
+	private int spins;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	public AtomicStickArbiter(int nrOfAreas) {
+		this(nrOfAreas, DEFAULT_SPINS);
+	}
+
+	public AtomicStickArbiter(int nrOfAreas, int spins)
+	{
+		model = ModelPhil.getSingleInstance();
+		owners = new AtomicIntegerArray(nrOfAreas);
+		waiters = new AtomicReferenceArray<Thread>(nrOfAreas);
+		this.spins = spins;
+		for (int i = 0; i < nrOfAreas; i++)
+			owners.set(i, FREE);
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	@Override
+	public void takeStick(int philNr, int areaNr) throws InterruptedException, InvocationTargetException
+	{
+		//phase 1: bounded spinning
+		for (int i = 0; i < spins; i++) {
+			if (owners.get(areaNr) == FREE && owners.compareAndSet(areaNr, FREE, philNr)) {
+				model.stickTaken(philNr, areaNr);
+				return;
+			}
+		}
+		//phase 2: register as waiter and park until the stick is released
+		Thread current = Thread.currentThread();
+		while (true) {
+			waiters.set(areaNr, current);
+			if (owners.get(areaNr) == FREE && owners.compareAndSet(areaNr, FREE, philNr)) {
+				waiters.compareAndSet(areaNr, current, null);
+				model.stickTaken(philNr, areaNr);
+				return;
+			}
+			LockSupport.park(this);
+			if (Thread.interrupted()) {
+				waiters.compareAndSet(areaNr, current, null);
+				throw new InterruptedException("Interrupted while waiting for stick " + areaNr);
+			}
+		}
+	}
+
+
+	@Override
+	public boolean tryTakeStick(int philNr, int areaNr, long timeout) throws InterruptedException, InvocationTargetException
+	{
+		long deadline = System.nanoTime() + timeout;
+		//phase 1: bounded spinning
+		for (int i = 0; i < spins; i++) {
+			if (owners.get(areaNr) == FREE && owners.compareAndSet(areaNr, FREE, philNr)) {
+				model.stickTaken(philNr, areaNr);
+				return true;
+			}
+		}
+		//phase 2: register as waiter and park until the stick is released or the timeout elapsed
+		Thread current = Thread.currentThread();
+		try {
+			while (true) {
+				waiters.set(areaNr, current);
+				if (owners.get(areaNr) == FREE && owners.compareAndSet(areaNr, FREE, philNr)) {
+					model.stickTaken(philNr, areaNr);
+					return true;
+				}
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0)
+					return false;
+				LockSupport.parkNanos(this, remaining);
+				if (Thread.interrupted())
+					throw new InterruptedException("Interrupted while waiting for stick " + areaNr);
+			}
+		}
+		finally {
+			waiters.compareAndSet(areaNr, current, null);
+		}
+	}
+
+
+	@Override
+	public void putStick(int philNr, int areaNr) throws InterruptedException, InvocationTargetException
+	{
+		//the model is updated before the release, so the display of an area is only changed by its owner
+		model.stickPut(philNr, areaNr);
+		if (!owners.compareAndSet(areaNr, philNr, FREE))
+			throw new IllegalStateException(String.format("Philosopher %d put stick %d it does not own", philNr, areaNr));
+		Thread waiter = waiters.get(areaNr);
+		if (waiter != null)
+			LockSupport.unpark(waiter);
+	}
+
+
+	/**
+	 * @param areaNr
+	 * @return nr of the philosopher owning the stick of the area or FREE
+	 */
+	public int getOwner(int areaNr) {
+		return owners.get(areaNr);
+	}
+
+}
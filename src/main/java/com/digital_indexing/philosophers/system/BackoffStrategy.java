@@ -0,0 +1,96 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.digital_indexing.philosophers.auxiliary.RandomStreams;
+
+/**
+ * Timed try-acquire with back-off.<br>
+ * The right stick is taken first. The left stick is only tried for a short time. 
+ * If it can not be taken the right stick is put back and the philosopher sleeps a random time before the next try.
+ * The maximum back-off time doubles with each failed try up to the max. action time.<br>
+ * The back-off times are drawn from the back-off stream of the seat (see RandomStreams), so they are reproducible by the seed.
+ * 
+ * @author mabo
+ *
+ */
+public class BackoffStrategy implements DeadlockStrategy {
+	
+//	---------------------------- ATTRIBUTES ----------------------------------
+	
+	static final long TRY_TIMEOUT = TimeUnit.MILLISECONDS.toNanos(1);
+	
+	private StickArbiter sticks;
+	private int maxBackoff;
+	private SplittableRandom[] randoms;
+	
+	
+//	---------------------------- CONSTRUCTOR ----------------------------------
+	
+	/**
+	 * @param sticks
+	 * @param maxBackoff in milliseconds
+	 * @param streams one back-off generator per seat is taken from them
+	 * @param nrOfPhilosophers
+	 */
+	public BackoffStrategy(StickArbiter sticks, int maxBackoff, RandomStreams streams, int nrOfPhilosophers) 
+	{
+		this.sticks = sticks;
+		this.maxBackoff = Math.max(1, maxBackoff);
+		randoms = new SplittableRandom[nrOfPhilosophers];
+		for (int i = 0; i < nrOfPhilosophers; i++)
+			randoms[i] = streams.forBackoff(i);
+	}
+	
+	
+//	---------------------------- METHODS ----------------------------------
+
+	@Override
+	public void sit(int philNr) {
+	}
+
+	@Override
+	public void takeSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException 
+	{
+		int backoff = 1;
+		while (true) {
+			sticks.takeStick(philNr, rightAreaNr);
+			if (sticks.tryTakeStick(philNr, leftAreaNr, TRY_TIMEOUT))
+				return;
+			sticks.putStick(philNr, rightAreaNr);
+			Thread.sleep(nextBackoff(philNr, backoff));
+			backoff = Math.min(backoff * 2, maxBackoff);
+		}
+	}
+
+
+	/**
+	 * @return random back-off time between 0 and max (milliseconds). the generator of the seat is used by its philosopher only
+	 */
+	long nextBackoff(int philNr, int max) {
+		return randoms[philNr].nextInt(max + 1);
+	}
+
+	@Override
+	public void putSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException {
+		sticks.putStick(philNr, rightAreaNr);
+		sticks.putStick(philNr, leftAreaNr);
+	}
+
+	@Override
+	public void leave(int philNr) {
+	}
+
+}
@@ -0,0 +1,191 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Chandy-Misra solution: the sticks are tokens passed between the neighbors. There is no supervisor and no global lock.<br>
+ * <p>
+ * Rules:<br>
+ * - each stick is held by one of its two neighbors and is either clean or dirty. initially all sticks are dirty and held by the neighbor with the lower number<br>
+ * - a hungry philosopher requests the sticks it does not hold. a requested stick is handed over if it is dirty and not in use. it is cleaned on the hand-over<br>
+ * - a clean stick is kept until its holder has eaten. after eating both sticks are dirty and pending requests are served<br>
+ * <p>
+ * Each stick is guarded by its own ReentrantLock, so only the two neighbors of an area ever coordinate. 
+ * A waiting philosopher parks on the condition of the stick instead of a monitor, so it does not pin the carrier of a virtual thread.
+ * 
+ * @author mabo
+ *
+ */
+public class ChandyMisraStrategy implements DeadlockStrategy {
+	
+//	---------------------------- ATTRIBUTES ----------------------------------
+	
+	private ModelPhil model;
+	private Fork[] forks;
+	
+	
+//	---------------------------- CONSTRUCTOR ----------------------------------
+	
+	public ChandyMisraStrategy(int nrOfPhilosophers) 
+	{
+		model = ModelPhil.getSingleInstance();
+		forks = new Fork[nrOfPhilosophers];
+		//area i lies between philosopher i and i+1. the last area lies between the last philosopher and philosopher 0
+		for (int i = 0; i < forks.length; i++) {
+			forks[i] = new Fork(i == forks.length - 1 ? 0 : i);
+		}
+	}
+	
+	
+//	---------------------------- METHODS ----------------------------------
+
+	@Override
+	public void sit(int philNr) {
+	}
+
+	@Override
+	public void takeSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException 
+	{
+		Fork first = forks[Math.min(leftAreaNr, rightAreaNr)];
+		Fork second = forks[Math.max(leftAreaNr, rightAreaNr)];
+		while (true) {
+			request(philNr, forks[rightAreaNr]);
+			request(philNr, forks[leftAreaNr]);
+			//a dirty stick may have been handed over in the meantime. start eating only if both sticks are still held
+			first.lock.lock();
+			try {
+				second.lock.lock();
+				try {
+					if (first.holder == philNr && second.holder == philNr) {
+						first.inUse = true;
+						second.inUse = true;
+						break;
+					}
+				}
+				finally {
+					second.lock.unlock();
+				}
+			}
+			finally {
+				first.lock.unlock();
+			}
+		}
+		model.stickTaken(philNr, rightAreaNr);
+		model.stickTaken(philNr, leftAreaNr);
+	}
+
+	@Override
+	public void putSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException 
+	{
+		model.stickPut(philNr, rightAreaNr);
+		model.stickPut(philNr, leftAreaNr);
+		release(forks[rightAreaNr]);
+		release(forks[leftAreaNr]);
+	}
+
+	@Override
+	public void leave(int philNr) {
+	}
+	
+	
+	/**
+	 * wait until the philosopher holds the stick. takes the stick over if it is dirty and not in use.
+	 */
+	private void request(int philNr, Fork fork) throws InterruptedException 
+	{
+		fork.lock.lockInterruptibly();
+		try {
+			while (fork.holder != philNr) {
+				if (fork.dirty && !fork.inUse) {
+					fork.holder = philNr;
+					fork.dirty = false;
+				}
+				else {
+					fork.requested = true;
+					fork.released.await();
+				}
+			}
+		}
+		finally {
+			fork.lock.unlock();
+		}
+	}
+	
+	
+	private void release(Fork fork) 
+	{
+		fork.lock.lock();
+		try {
+			fork.inUse = false;
+			fork.dirty = true;
+			if (fork.requested) {
+				fork.requested = false;
+				fork.released.signal();
+			}
+		}
+		finally {
+			fork.lock.unlock();
+		}
+	}
+	
+	
+	/**
+	 * @param areaNr
+	 * @return true if the stick of the area is dirty
+	 */
+	public boolean isDirty(int areaNr) {
+		Fork fork = forks[areaNr];
+		fork.lock.lock();
+		try {
+			return fork.dirty;
+		}
+		finally {
+			fork.lock.unlock();
+		}
+	}
+	
+	
+	/**
+	 * @param areaNr
+	 * @return nr of the philosopher holding the stick of the area
+	 */
+	public int getHolder(int areaNr) {
+		Fork fork = forks[areaNr];
+		fork.lock.lock();
+		try {
+			return fork.holder;
+		}
+		finally {
+			fork.lock.unlock();
+		}
+	}
+	
+	
+//	---------------------------- DATA CLASS ----------------------------------
+	
+	private static class Fork {
+		final ReentrantLock lock = new ReentrantLock();
+		final Condition released = lock.newCondition();
+		int holder;
+		boolean dirty = true;
+		boolean inUse;
+		boolean requested;
+		
+		Fork(int holder) {
+			this.holder = holder;
+		}
+	}
+
+}
@@ -25,6 +25,8 @@ import javax.swing.JRadioButton;
 import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
 
+import com.digital_indexing.philosophers.auxiliary.SimulationConfig;
+import com.digital_indexing.philosophers.enums.ExecutorMode;
 import com.digital_indexing.philosophers.enums.ModePhil;
 
 public class ComponentMap extends HashMap<String, JComponent> {
@@ -48,6 +50,9 @@ public class ComponentMap extends HashMap<String, JComponent> {
 	public static final String NR_OF_PHILS_SPINNER = "nrofphilsspinner";
 	public static final String SPEED_SPINNER = "speedspinner";
 	
+	public static final int MAX_PHILOSOPHERS = 100000;
+	public static final int MAX_PLATFORM_PHILOSOPHERS = 2000;
+	
 	
 //	------------------------ BUTTON GROUP -----------------------------
 	
@@ -75,8 +80,9 @@ public class ComponentMap extends HashMap<String, JComponent> {
 		put(MENU, menubar);
 		
 		// build nr of phil panel
-		final JSpinner nrOfPhilSpinner = new JSpinner(new SpinnerNumberModel(3, 3, 12, 1));
-		final JPanel nrOfPhilsPanel = buildNrOfPhilsPanel(nrOfPhilSpinner);
+		final int maxPhilosophers = getMaxPhilosophers(SimulationConfig.fromSystemProperties().executorMode);
+		final JSpinner nrOfPhilSpinner = new JSpinner(new SpinnerNumberModel(3, 3, maxPhilosophers, 1));
+		final JPanel nrOfPhilsPanel = buildNrOfPhilsPanel(nrOfPhilSpinner, maxPhilosophers);
 		put(NR_OF_PHILS_SPINNER, nrOfPhilSpinner);
 		put(NR_OF_PHILS_PANEL, nrOfPhilsPanel);
 		
@@ -100,6 +106,14 @@ public class ComponentMap extends HashMap<String, JComponent> {
 	}
 	
 	
+	/**
+	 * each platform philosopher is a thread of its own with its own stack, so without virtual threads the table is limited to MAX_PLATFORM_PHILOSOPHERS.
+	 */
+	public static int getMaxPhilosophers(ExecutorMode executorMode) {
+		return executorMode == ExecutorMode.VIRTUAL ? MAX_PHILOSOPHERS : MAX_PLATFORM_PHILOSOPHERS;
+	}
+	
+	
 //	------------------------ BUILD SECTION -------------------------------
 
 	private JMenuBar buildMenuBar(JMenuItem start, JMenuItem stop,
@@ -122,10 +136,12 @@ public class ComponentMap extends HashMap<String, JComponent> {
 	}
 
 	
-	private JPanel buildNrOfPhilsPanel(JSpinner nrOfPhilSpinner) 
+	private JPanel buildNrOfPhilsPanel(JSpinner nrOfPhilSpinner, int maxPhilosophers) 
 	{
 		final JPanel nrOfPhilPanel = new JPanel();
-		final JLabel label = new JLabel("Number of philosophers:");
+		JSpinner.NumberEditor editor = new JSpinner.NumberEditor(nrOfPhilSpinner, "#");
+		nrOfPhilSpinner.setEditor(editor);
+		final JLabel label = new JLabel("Number of philosophers (3-" + maxPhilosophers + "):");
 		nrOfPhilPanel.add(label);
 		nrOfPhilPanel.add(nrOfPhilSpinner);
 		return nrOfPhilPanel;
@@ -14,6 +14,15 @@ import java.util.List;
 import java.util.Vector;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.digital_indexing.philosophers.auxiliary.Logger4Philosophers;
+import com.digital_indexing.philosophers.auxiliary.RandomStreams;
+import com.digital_indexing.philosophers.auxiliary.SimulationConfig;
+import com.digital_indexing.philosophers.enums.ExecutorMode;
+import com.digital_indexing.philosophers.enums.StickMode;
+import com.digital_indexing.philosophers.metrics.TableMetrics;
 
 public class ControllerPhil {
 	
@@ -21,21 +30,39 @@ public class ControllerPhil {
 	
 	private static Supervisor supervisor;
 	private static ExecutorService executor;
-	private static List<Philosopher> list;
+	private static List<Future<Void>> list;
 	
 	
 //	---------------------------- METHOD ----------------------------------
 
 	public static void runPhilosophers(int nrOfPhilosophers, int actionTime) 
 	{
-		supervisor = new Supervisor();
-		executor = Executors.newFixedThreadPool(nrOfPhilosophers);
-		list = new Vector<Philosopher>();
+		SimulationConfig config = SimulationConfig.fromSystemProperties();
+		config.nrOfPhilosophers = nrOfPhilosophers;
+		config.actionTime = actionTime;
+		runPhilosophers(config);
+	}
+	
+	
+	public static void runPhilosophers(SimulationConfig config) 
+	{
+		int nrOfPhilosophers = config.nrOfPhilosophers;
+		TableMetrics.getSingleInstance().register();
+		supervisor = new Supervisor(config);
+		DeadlockStrategy strategy = createStrategy(config, createStickArbiter(config));
+		RandomStreams streams = new RandomStreams(config.seed);
+		executor = createExecutor(config);
+		list = new Vector<Future<Void>>();
 		for (int i = 0; i < nrOfPhilosophers; i++) 
-			list.add(new Philosopher(i, actionTime, supervisor));
-		for (Philosopher philosopher : list) {
-			executor.submit(philosopher);
-		}
+			list.add(executor.submit(new Philosopher(i, config.actionTime, strategy, streams.forSeat(i), config.distributionMode)));
+	}
+	
+	
+	/**
+	 * @return supervisor of the running or last simulation, null if no simulation has been started
+	 */
+	public static Supervisor getSupervisor() {
+		return supervisor;
 	}
 	
 	
@@ -45,9 +72,75 @@ public class ControllerPhil {
 			return;
 		if (executor.isShutdown())
 			return;
-		for (Philosopher philosopher : list) {
+		for (Future<Void> philosopher : list) {
 			philosopher.cancel(true);
 		}
+		executor.shutdown();
+	}
+	
+	
+	/**
+	 * platform: one platform thread per philosopher.<br>
+	 * virtual: one virtual thread per philosopher. The executor is looked up by reflection, so the code still compiles for java 8.
+	 */
+	private static ExecutorService createExecutor(SimulationConfig config) 
+	{
+		if (config.executorMode != ExecutorMode.VIRTUAL)
+			return Executors.newFixedThreadPool(config.nrOfPhilosophers);
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Virtual threads are not supported by this jvm (java 21 or newer required)", e);
+		}
+	}
+	
+	
+	/**
+	 * monitor waits pin the carrier thread of a virtual thread, so virtual philosophers always park on the atomic sticks.
+	 */
+	private static StickArbiter createStickArbiter(SimulationConfig config) 
+	{
+		StickMode mode = config.stickMode;
+		if (config.executorMode == ExecutorMode.VIRTUAL && mode == StickMode.MONITOR) {
+			Logger4Philosophers.logger4Philosophers.warn("Virtual threads use atomic stick arbitration instead of monitors");
+			mode = StickMode.ATOMIC;
+		}
+		switch (mode) {
+		case ATOMIC:
+			return new AtomicStickArbiter(config.nrOfPhilosophers);
+		default:
+			return new MonitorStickArbiter(supervisor);
+		}
+	}
+	
+	
+	private static DeadlockStrategy createStrategy(SimulationConfig config, StickArbiter sticks) 
+	{
+		switch (config.strategyMode) {
+		case ORDERED:
+			return new OrderedStrategy(sticks);
+		case ASYMMETRIC:
+			return new AsymmetricStrategy(sticks);
+		case BACKOFF:
+			return new BackoffStrategy(sticks, config.actionTime, new RandomStreams(config.seed), config.nrOfPhilosophers);
+		case CHANDY_MISRA:
+			return new ChandyMisraStrategy(config.nrOfPhilosophers);
+		default:
+			return new WaiterStrategy(supervisor, sticks);
+		}
+	}
+	
+	
+	/**
+	 * wait for the philosophers of a stopped simulation to leave the table.
+	 * @param timeout in milliseconds
+	 * @return true if all philosophers terminated in time
+	 */
+	public static boolean awaitPhilosophers(long timeout) throws InterruptedException 
+	{
+		if (executor == null)
+			return true;
+		return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
 	}
 
 }
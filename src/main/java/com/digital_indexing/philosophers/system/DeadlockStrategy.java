@@ -0,0 +1,47 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Strategy of the philosophers to prevent deadlocks.<br>
+ * <p>
+ * A philosopher calls the methods in the following order for each meal:<br>
+ * sit -> takeSticks -> (eating) -> putSticks -> leave<br>
+ * <p>
+ * Implementations:<br>
+ * - WaiterStrategy: the supervisor admits at most n-1 philosophers to the table<br>
+ * - OrderedStrategy: the stick with the lower area number is taken first (global resource ordering)<br>
+ * - AsymmetricStrategy: even philosophers take the right stick first, odd philosophers the left one<br>
+ * - BackoffStrategy: the second stick is only tried for a short time. on failure the first stick is put back and the philosopher backs off<br>
+ * - ChandyMisraStrategy: clean and dirty sticks are passed between neighbors on request, without supervisor<br>
+ * 
+ * @author mabo
+ *
+ */
+public interface DeadlockStrategy {
+	
+	/**
+	 * admission to the table. blocks until the philosopher may try to take sticks.
+	 */
+	public void sit(int philNr) throws InterruptedException;
+	
+	/**
+	 * blocks until the philosopher holds both sticks.
+	 */
+	public void takeSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException;
+	
+	public void putSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException;
+	
+	public void leave(int philNr);
+
+}
@@ -0,0 +1,301 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.util.SplittableRandom;
+
+import com.digital_indexing.philosophers.auxiliary.ActionTimes;
+import com.digital_indexing.philosophers.auxiliary.EventQueue;
+import com.digital_indexing.philosophers.auxiliary.RandomStreams;
+import com.digital_indexing.philosophers.auxiliary.RankingIndex;
+import com.digital_indexing.philosophers.auxiliary.SeatLatencies;
+import com.digital_indexing.philosophers.enums.DistributionMode;
+import com.digital_indexing.philosophers.enums.LatencyKind;
+
+/**
+ * Discrete event simulation of the table on a virtual clock (milliseconds).<br>
+ * <p>
+ * The simulation runs in one thread without sleeping. It follows the loop of a Philosopher with the waiter strategy:<br>
+ * <ol>
+ * <li>THINK_DONE: the philosophizing time is added to the ranking. the philosopher asks the supervisor for a seat</li>
+ * <li>ACQUIRE: the philosopher takes a seat (at most n-1 seated), the right stick and the left stick. if one of them is not free it waits in the queue of the seats or of the area. with both sticks it eats</li>
+ * <li>EAT_DONE: the sticks are put back and the seat is left. waiting philosophers get the stick or seat handed over and continue with an ACQUIRE event at the same time</li>
+ * </ol>
+ * Think and eat durations are drawn from the configured distribution (see ActionTimes), exactly like in Philosopher. 
+ * Each philosopher draws from its own random stream, so with the same seed the durations of a seat are the same as in the threaded engine.<br>
+ * The latencies (admission, forks, wait, eating) are recorded in virtual time into SeatLatencies, like the philosophers of the threaded engine do.
+ *
+ * @author mabo
+ *
+ */
+public class DiscreteEventSimulation {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	private static final int THINK_DONE = 0;
+	private static final int ACQUIRE = 1;
+	private static final int EAT_DONE = 2;
+
+	private static final int NEED_SEAT = 0;
+	private static final int NEED_RIGHT = 1;
+	private static final int NEED_LEFT = 2;
+	private static final int READY = 3;
+	private static final int EATING = 4;
+	private static final int THINKING = 5;
+
+	private static final int NONE = -1;
+
+	private static final long NANOS = 1000000L;
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private int nrOfPhilosophers;
+	private int actionTime;
+	private DistributionMode distribution;
+	private SplittableRandom[] randoms;
+
+	private EventQueue events;
+	private long now;
+	private long processedEvents;
+
+	private int[] stage;
+	private int[] owners;
+	private int[] waiters;
+	private int[] seatQueue;
+	private int seatQueueHead, seatQueueSize;
+	private int seated;
+
+	private long[] askedAt;
+	private long[] seatedAt;
+	private SeatLatencies latencies;
+
+	private long[] thinkTimes;
+	private long[] mealCounts;
+	private RankingIndex ranking;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	public DiscreteEventSimulation(int nrOfPhilosophers, int actionTime, long seed) {
+		this(nrOfPhilosophers, actionTime, seed, DistributionMode.UNIFORM);
+	}
+	
+	public DiscreteEventSimulation(int nrOfPhilosophers, int actionTime, long seed, DistributionMode distribution)
+	{
+		this.nrOfPhilosophers = nrOfPhilosophers;
+		this.actionTime = actionTime;
+		this.distribution = distribution;
+		RandomStreams streams = new RandomStreams(seed);
+		randoms = new SplittableRandom[nrOfPhilosophers];
+		events = new EventQueue(nrOfPhilosophers * 2);
+		stage = new int[nrOfPhilosophers];
+		owners = new int[nrOfPhilosophers];
+		waiters = new int[nrOfPhilosophers];
+		seatQueue = new int[nrOfPhilosophers];
+		askedAt = new long[nrOfPhilosophers];
+		seatedAt = new long[nrOfPhilosophers];
+		latencies = new SeatLatencies(nrOfPhilosophers, 1);
+		thinkTimes = new long[nrOfPhilosophers];
+		mealCounts = new long[nrOfPhilosophers];
+		ranking = new RankingIndex(nrOfPhilosophers);
+		for (int i = 0; i < nrOfPhilosophers; i++) {
+			randoms[i] = streams.forSeat(i);
+			owners[i] = NONE;
+			waiters[i] = NONE;
+			think(i);
+		}
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	/**
+	 * process all events up to the virtual time.
+	 * @param until virtual time in milliseconds
+	 */
+	public void runUntil(long until)
+	{
+		while (!events.isEmpty() && events.peekTime() <= until) {
+			int payload = events.peekPayload();
+			now = events.poll();
+			processedEvents++;
+			int philNr = payload >>> 2;
+			switch (payload & 3) {
+			case THINK_DONE:
+				ranking.changeTimeValue(philNr, thinkTimes[philNr]);
+				askedAt[philNr] = now;
+				stage[philNr] = NEED_SEAT;
+				acquire(philNr);
+				break;
+			case ACQUIRE:
+				acquire(philNr);
+				break;
+			case EAT_DONE:
+				release(philNr);
+				break;
+			}
+		}
+		now = Math.max(now, until);
+	}
+
+
+	private void acquire(int philNr)
+	{
+		int rightAreaNr = philNr;
+		int leftAreaNr = philNr - 1 < 0 ? nrOfPhilosophers - 1 : philNr - 1;
+		if (stage[philNr] == NEED_SEAT) {
+			if (seated > nrOfPhilosophers - 2) {
+				seatQueue[(seatQueueHead + seatQueueSize++) % seatQueue.length] = philNr;
+				return;
+			}
+			seated++;
+			seatedDown(philNr);
+			stage[philNr] = NEED_RIGHT;
+		}
+		if (stage[philNr] == NEED_RIGHT) {
+			if (!takeStick(philNr, rightAreaNr))
+				return;
+			stage[philNr] = NEED_LEFT;
+		}
+		if (stage[philNr] == NEED_LEFT) {
+			if (!takeStick(philNr, leftAreaNr))
+				return;
+			stage[philNr] = READY;
+		}
+		if (stage[philNr] == READY) {
+			stage[philNr] = EATING;
+			latencies.record(LatencyKind.FORKS, philNr, (now - seatedAt[philNr]) * NANOS);
+			latencies.record(LatencyKind.WAIT, philNr, (now - askedAt[philNr]) * NANOS);
+			long eating = duration(philNr);
+			latencies.record(LatencyKind.EATING, philNr, eating * NANOS);
+			schedule(philNr, EAT_DONE, eating);
+		}
+	}
+
+
+	private void seatedDown(int philNr) {
+		seatedAt[philNr] = now;
+		latencies.record(LatencyKind.ADMISSION, philNr, (now - askedAt[philNr]) * NANOS);
+	}
+
+
+	private boolean takeStick(int philNr, int areaNr)
+	{
+		if (owners[areaNr] == NONE) {
+			owners[areaNr] = philNr;
+			return true;
+		}
+		waiters[areaNr] = philNr;
+		return false;
+	}
+
+
+	private void release(int philNr)
+	{
+		int rightAreaNr = philNr;
+		int leftAreaNr = philNr - 1 < 0 ? nrOfPhilosophers - 1 : philNr - 1;
+		putStick(rightAreaNr);
+		putStick(leftAreaNr);
+		//leave: hand the seat over to the first waiting philosopher
+		if (seatQueueSize > 0) {
+			int next = seatQueue[seatQueueHead];
+			seatQueueHead = (seatQueueHead + 1) % seatQueue.length;
+			seatQueueSize--;
+			stage[next] = NEED_RIGHT;
+			seatedDown(next);
+			schedule(next, ACQUIRE, 0);
+		}
+		else {
+			seated--;
+		}
+		mealCounts[philNr]++;
+		think(philNr);
+	}
+
+
+	private void putStick(int areaNr)
+	{
+		int waiter = waiters[areaNr];
+		if (waiter == NONE) {
+			owners[areaNr] = NONE;
+			return;
+		}
+		//hand the stick over to the waiting neighbor. it continues with the next stick or with eating
+		waiters[areaNr] = NONE;
+		owners[areaNr] = waiter;
+		stage[waiter]++;
+		schedule(waiter, ACQUIRE, 0);
+	}
+
+
+	private void think(int philNr)
+	{
+		stage[philNr] = THINKING;
+		thinkTimes[philNr] = duration(philNr);
+		schedule(philNr, THINK_DONE, thinkTimes[philNr]);
+	}
+
+
+	private void schedule(int philNr, int type, long delay) {
+		events.add(now + delay, philNr << 2 | type);
+	}
+
+
+	private long duration(int philNr) {
+		return ActionTimes.draw(distribution, randoms[philNr], actionTime);
+	}
+
+
+//	----------------------------- GETTERS -----------------------------
+
+	/**
+	 * @return virtual time in milliseconds
+	 */
+	public long getTime() {
+		return now;
+	}
+
+	public long getProcessedEvents() {
+		return processedEvents;
+	}
+
+	public long getMealCount(int philNr) {
+		return mealCounts[philNr];
+	}
+
+	public long getTotalMeals() {
+		long total = 0;
+		for (long count : mealCounts)
+			total += count;
+		return total;
+	}
+
+	boolean isEating(int philNr) {
+		return stage[philNr] == EATING;
+	}
+
+	public int getSeatedCount() {
+		return seated;
+	}
+
+	/**
+	 * @return latencies in virtual time. clear them after a warm-up
+	 */
+	public SeatLatencies getLatencies() {
+		return latencies;
+	}
+
+	public RankingIndex getRanking() {
+		return ranking;
+	}
+
+}
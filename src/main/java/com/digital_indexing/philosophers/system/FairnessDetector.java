@@ -0,0 +1,219 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.digital_indexing.philosophers.listeners.EventBus;
+import com.digital_indexing.philosophers.listeners.FairnessEvent;
+import com.digital_indexing.philosophers.listeners.StarvationEvent;
+
+/**
+ * Incremental detection of starving philosophers and unfair tables. Updated on each meal, never by a scan over the table.<br>
+ * <p>
+ * Starvation: the time of the last meal of each seat is kept. When a philosopher finishes a meal its two neighbors are checked. 
+ * A neighbor starves if it did not eat for STARVATION_FACTOR times the interval between the last two meals of the philosopher (and at least the min. time). 
+ * A StarvationEvent is published once, until the starving philosopher eats again.<br>
+ * <p>
+ * Fairness: Jain index (sum x)^2 / (n * sum x^2) over the meal counts x of the seats in a window of fixed length. 
+ * The sums are LongAdders and are updated with each meal (x -> x + 1 adds 1 and 2x + 1). 
+ * The count of a seat belongs to a window and is reset lazily by its next meal in a new window. 
+ * Two sets of sums alternate between the windows. When a window is over, its index is computed from its sums 
+ * and a FairnessEvent is published if it is below the threshold.<br>
+ * Meals finishing exactly at the end of a window may be counted into the next one.<br>
+ * restart drops the counts and the index of the windows so far (e.g. after a warm-up) and begins a new window.
+ *
+ * @author mabo
+ *
+ */
+public class FairnessDetector {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	public static final long STARVATION_FACTOR = 8;
+	public static final long MIN_STARVATION = 100000000L;
+	public static final long WINDOW = 10000000000L;
+	public static final double JAIN_THRESHOLD = 0.8;
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private EventBus bus;
+	private int nrOfSeats;
+	private volatile long start;
+	private long window;
+	private double jainThreshold;
+
+	private AtomicLongArray lastMeals;
+	private AtomicIntegerArray starving;
+
+	private long[] counts;
+	private long[] countWindows;
+	private AtomicLong currentWindow = new AtomicLong();
+	private AtomicBoolean closingWindow = new AtomicBoolean();
+	private LongAdder[] sums = { new LongAdder(), new LongAdder() };
+	private LongAdder[] squares = { new LongAdder(), new LongAdder() };
+
+	private LongAdder starvations = new LongAdder();
+	private volatile double lastJainIndex = 1.0;
+	private volatile double minJainIndex = 1.0;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	public FairnessDetector(EventBus bus, int nrOfSeats) {
+		this(bus, nrOfSeats, WINDOW, JAIN_THRESHOLD);
+	}
+
+	/**
+	 * @param bus events are published here
+	 * @param nrOfSeats
+	 * @param window length of a fairness window in nanoseconds
+	 * @param jainThreshold a window with a lower index is reported
+	 */
+	public FairnessDetector(EventBus bus, int nrOfSeats, long window, double jainThreshold)
+	{
+		this.bus = bus;
+		this.nrOfSeats = nrOfSeats;
+		this.window = window;
+		this.jainThreshold = jainThreshold;
+		start = System.nanoTime();
+		lastMeals = new AtomicLongArray(nrOfSeats);
+		starving = new AtomicIntegerArray(nrOfSeats);
+		counts = new long[nrOfSeats];
+		countWindows = new long[nrOfSeats];
+		for (int i = 0; i < nrOfSeats; i++)
+			lastMeals.set(i, start);
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	/**
+	 * invoked by the philosopher of the seat after each meal.
+	 * @param seat
+	 * @param now System.nanoTime()
+	 */
+	public void mealFinished(int seat, long now) throws InterruptedException
+	{
+		//starvation: own interval, then the two neighbors
+		long interval = now - lastMeals.get(seat);
+		lastMeals.set(seat, now);
+		starving.set(seat, 0);
+		long limit = Math.max(MIN_STARVATION, interval * STARVATION_FACTOR);
+		checkNeighbor(seat, seat == 0 ? nrOfSeats - 1 : seat - 1, now, interval, limit);
+		checkNeighbor(seat, seat == nrOfSeats - 1 ? 0 : seat + 1, now, interval, limit);
+
+		//fairness: count of the seat in the current window (only this seat writes it)
+		long w = currentWindow.get();
+		if (now - start >= (w + 1) * window) {
+			closeWindow(w, now);
+			w = currentWindow.get();
+		}
+		if (countWindows[seat] != w) {
+			countWindows[seat] = w;
+			counts[seat] = 0;
+		}
+		long x = counts[seat]++;
+		sums[(int) (w & 1)].increment();
+		squares[(int) (w & 1)].add(2 * x + 1);
+	}
+
+
+	private void checkNeighbor(int seat, int neighbor, long now, long interval, long limit) throws InterruptedException
+	{
+		long since = now - lastMeals.get(neighbor);
+		if (since < limit || !starving.compareAndSet(neighbor, 0, 1))
+			return;
+		starvations.increment();
+		if (bus.hasSubscribers(StarvationEvent.class))
+			bus.publish(new StarvationEvent(this, neighbor, seat, since, interval));
+	}
+
+
+	/**
+	 * one thread computes the index of the finished window and switches to the next one.
+	 */
+	private void closeWindow(long w, long now) throws InterruptedException
+	{
+		if (!closingWindow.compareAndSet(false, true))
+			return;
+		double jain;
+		long meals;
+		try {
+			if (currentWindow.get() != w)
+				return;
+			meals = sums[(int) (w & 1)].sum();
+			long square = squares[(int) (w & 1)].sum();
+			//windows without any meal are skipped
+			long next = Math.max(w + 1, (now - start) / window);
+			sums[(int) (next & 1)].reset();
+			squares[(int) (next & 1)].reset();
+			currentWindow.set(next);
+			jain = square == 0 ? 1.0 : (double) meals * meals / ((double) nrOfSeats * square);
+			lastJainIndex = jain;
+			minJainIndex = Math.min(minJainIndex, jain);
+		}
+		finally {
+			closingWindow.set(false);
+		}
+		if (jain < jainThreshold && bus.hasSubscribers(FairnessEvent.class))
+			bus.publish(new FairnessEvent(this, w, jain, meals));
+	}
+
+
+	/**
+	 * drop the starvation count and the indices so far and begin a new window now. the last meals of the seats are kept.
+	 */
+	public void restart()
+	{
+		while (!closingWindow.compareAndSet(false, true))
+			Thread.yield();
+		try {
+			//the numbers of the windows keep growing, so the lazily reset counts of the seats stay valid
+			long next = currentWindow.get() + 1;
+			sums[(int) (next & 1)].reset();
+			squares[(int) (next & 1)].reset();
+			start = System.nanoTime() - next * window;
+			currentWindow.set(next);
+			starvations.reset();
+			lastJainIndex = 1.0;
+			minJainIndex = 1.0;
+		}
+		finally {
+			closingWindow.set(false);
+		}
+	}
+
+
+//	----------------------------- GETTERS -----------------------------
+
+	public long getSinceLastMeal(int seat, long now) {
+		return now - lastMeals.get(seat);
+	}
+
+	public long getStarvations() {
+		return starvations.sum();
+	}
+
+	public double getLastJainIndex() {
+		return lastJainIndex;
+	}
+
+	public double getMinJainIndex() {
+		return minJainIndex;
+	}
+
+}
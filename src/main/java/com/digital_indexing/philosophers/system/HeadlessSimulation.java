@@ -0,0 +1,223 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+
+import com.digital_indexing.philosophers.auxiliary.LatencyHistogram;
+import com.digital_indexing.philosophers.auxiliary.RunReport;
+import com.digital_indexing.philosophers.auxiliary.SeatLatencies;
+import com.digital_indexing.philosophers.auxiliary.SimulationConfig;
+import com.digital_indexing.philosophers.enums.EngineMode;
+import com.digital_indexing.philosophers.enums.LatencyKind;
+import com.digital_indexing.philosophers.enums.StoreMode;
+import com.digital_indexing.philosophers.listeners.PhilNumberSetEvent;
+
+/**
+ * Simulation without gui, the load harness of the table.<br>
+ * <p>
+ * The model gets no listeners, so the philosophers never wait for the event dispatch thread.<br>
+ * The table is started and stopped by ControllerPhil exactly like in the gui. 
+ * After a warm-up the meal counts and the admission counters are taken, the latency histograms are cleared in place, 
+ * the admission maxima are reset and the fairness detector is restarted. 
+ * So meals, cpu time, latencies, starvations, jain indices and all admission values cover the measured duration only.<br>
+ * The report (text or json, see RunReport) holds the config, meals/sec, the meals of each seat, the waits and the cpu time of the process in the measured duration.<br>
+ * With the des engine the table is simulated by a DiscreteEventSimulation on a virtual clock instead. Its waits are reported in virtual time.<br>
+ * No AWT or swing class is used by this class or by the classes it drives.
+ *
+ * @author mabo
+ *
+ */
+public class HeadlessSimulation {
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private static final long STOP_TIMEOUT = 10000;
+
+	private SimulationConfig config;
+	private ModelPhil model;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	public HeadlessSimulation(SimulationConfig config)
+	{
+		this.config = config;
+		model = ModelPhil.getSingleInstance();
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	/**
+	 * run the table for the configured warm-up and duration and print the report.
+	 * @return report of the measured duration
+	 */
+	public RunReport run() throws InterruptedException
+	{
+		RunReport report = config.engineMode == EngineMode.DES ? runDiscrete() : runThreads();
+		report.print(System.out, config.reportMode);
+		return report;
+	}
+
+
+	private RunReport runThreads() throws InterruptedException
+	{
+		model.setModelListener(null);
+		model.setTimeListener(null);
+		model.setStore(config.storeMode, config.storeFile);
+		model.nrOfPhilosophersSet(new PhilNumberSetEvent(this, config.nrOfPhilosophers));
+
+		long[] startMeals, endMeals;
+		long start, end, startCpu, endCpu;
+		long startAdmissions, endAdmissions, startAdmissionNanos, endAdmissionNanos;
+		ControllerPhil.runPhilosophers(config);
+		AdmissionController admission = ControllerPhil.getSupervisor().getAdmission();
+		try {
+			if (config.warmup > 0) {
+				Thread.sleep(config.warmup * 1000L);
+				model.resetLatencies();
+				model.getFairness().restart();
+				admission.resetMaxima();
+			}
+			startMeals = getMealCounts();
+			startAdmissions = admission.getAdmissions();
+			startAdmissionNanos = admission.getAdmissionNanos();
+			startCpu = getProcessCpuTime();
+			start = System.nanoTime();
+			Thread.sleep(config.duration * 1000L);
+			endMeals = getMealCounts();
+			endAdmissions = admission.getAdmissions();
+			endAdmissionNanos = admission.getAdmissionNanos();
+			endCpu = getProcessCpuTime();
+			end = System.nanoTime();
+		}
+		finally {
+			ControllerPhil.stopPhilosophers();
+		}
+		if (!ControllerPhil.awaitPhilosophers(STOP_TIMEOUT))
+			throw new IllegalStateException("Philosophers did not stop in time");
+
+		long[] meals = new long[endMeals.length];
+		long total = 0;
+		for (int i = 0; i < meals.length; i++) {
+			meals[i] = endMeals[i] - startMeals[i];
+			total += meals[i];
+		}
+		double seconds = (end - start) / 1e9;
+		RunReport report = new RunReport();
+		report.put("config", config.toReport());
+		report.put("meals", total);
+		report.put("seconds", seconds);
+		report.put("meals_per_sec", total / seconds);
+		report.put("cpu_seconds", startCpu < 0 ? Double.NaN : (endCpu - startCpu) / 1e9);
+		if (config.storeMode == StoreMode.MAPPED)
+			report.put("store_file", config.storeFile.getAbsolutePath());
+		FairnessDetector fairness = model.getFairness();
+		report.put("starvations", fairness.getStarvations());
+		report.put("jain_index_last", fairness.getLastJainIndex());
+		report.put("jain_index_min", fairness.getMinJainIndex());
+		putLatencies(report, model.getLatencies());
+		long admissions = endAdmissions - startAdmissions;
+		if (admissions > 0) {
+			report.put("admission_stripes", admission.getNrOfStripes());
+			report.put("admission_mean_ms", (endAdmissionNanos - startAdmissionNanos) / 1e6 / admissions);
+			report.put("admission_max_ms", admission.getMaxAdmissionNanos() / 1e6);
+			report.put("admission_max_queue_depth", admission.getMaxQueueDepth());
+		}
+		report.put("meals_per_seat", meals);
+		return report;
+	}
+
+
+	private RunReport runDiscrete()
+	{
+		DiscreteEventSimulation des = new DiscreteEventSimulation(config.nrOfPhilosophers, config.actionTime, config.seed, config.distributionMode);
+		des.runUntil(config.warmup * 1000L);
+		des.getLatencies().clear();
+		long[] meals = new long[config.nrOfPhilosophers];
+		for (int i = 0; i < meals.length; i++)
+			meals[i] = des.getMealCount(i);
+		long startEvents = des.getProcessedEvents();
+		long startCpu = getProcessCpuTime();
+		long start = System.nanoTime();
+		des.runUntil((config.warmup + config.duration) * 1000L);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		long endCpu = getProcessCpuTime();
+		long events = des.getProcessedEvents() - startEvents;
+		long total = 0;
+		for (int i = 0; i < meals.length; i++) {
+			meals[i] = des.getMealCount(i) - meals[i];
+			total += meals[i];
+		}
+		RunReport report = new RunReport();
+		report.put("config", config.toReport());
+		report.put("meals", total);
+		report.put("virtual_seconds", config.duration);
+		report.put("seconds", seconds);
+		report.put("meals_per_sec", total / (double) config.duration);
+		report.put("cpu_seconds", startCpu < 0 ? Double.NaN : (endCpu - startCpu) / 1e9);
+		report.put("events", events);
+		report.put("events_per_sec", events / seconds);
+		putLatencies(report, des.getLatencies());
+		report.put("meals_per_seat", meals);
+		return report;
+	}
+
+
+	private static void putLatencies(RunReport report, SeatLatencies latencies)
+	{
+		for (LatencyKind kind : LatencyKind.values()) {
+			LatencyHistogram table = latencies.getTable(kind);
+			String name = kind.toString().toLowerCase();
+			report.put(name + "_p50_ms", table.getValueAtPercentile(50) / 1e6);
+			report.put(name + "_p99_ms", table.getValueAtPercentile(99) / 1e6);
+			report.put(name + "_p999_ms", table.getValueAtPercentile(99.9) / 1e6);
+			report.put(name + "_max_ms", table.getMaxNanos() / 1e6);
+		}
+		//the seat that starves most: the largest p99 of the waits of a seat
+		long worst = 0;
+		int worstSeat = 0;
+		for (int seat = 0; seat < latencies.size(); seat++) {
+			long p99 = latencies.getSeatWaitAtPercentile(seat, 99);
+			if (p99 > worst) {
+				worst = p99;
+				worstSeat = seat;
+			}
+		}
+		report.put("wait_seat_p99_max_ms", worst / 1e6);
+		report.put("wait_seat_p99_max_seat", worstSeat);
+	}
+
+
+	private long[] getMealCounts()
+	{
+		long[] meals = new long[config.nrOfPhilosophers];
+		for (int i = 0; i < meals.length; i++)
+			meals[i] = model.getMealCount(i);
+		return meals;
+	}
+
+
+	/**
+	 * @return cpu time of all threads of the process in nanoseconds, -1 if the jvm does not offer it
+	 */
+	private static long getProcessCpuTime()
+	{
+		OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if (os instanceof com.sun.management.OperatingSystemMXBean)
+			return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+		return -1;
+	}
+
+}
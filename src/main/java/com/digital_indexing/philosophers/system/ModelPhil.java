@@ -10,29 +10,54 @@
  */
 package com.digital_indexing.philosophers.system;
 
+import java.io.File;
 import java.lang.reflect.InvocationTargetException;
+import java.util.EventObject;
+import java.util.concurrent.locks.StampedLock;
 
-import javax.swing.SwingUtilities;
-
-import com.digital_indexing.philosophers.auxiliary.TimeData;
-import com.digital_indexing.philosophers.auxiliary.TimeDataTree;
+import com.digital_indexing.philosophers.auxiliary.DeltaRing;
+import com.digital_indexing.philosophers.auxiliary.MappedStateStore;
+import com.digital_indexing.philosophers.auxiliary.PackedStateStore;
+import com.digital_indexing.philosophers.auxiliary.RankingIndex;
+import com.digital_indexing.philosophers.auxiliary.RankingSnapshot;
+import com.digital_indexing.philosophers.auxiliary.SeatLatencies;
+import com.digital_indexing.philosophers.auxiliary.StateStore;
+import com.digital_indexing.philosophers.enums.DeliveryMode;
+import com.digital_indexing.philosophers.enums.OverflowPolicy;
 import com.digital_indexing.philosophers.enums.StatePhil;
+import com.digital_indexing.philosophers.enums.StoreMode;
+import com.digital_indexing.philosophers.listeners.EventBus;
+import com.digital_indexing.philosophers.listeners.EventBus.Subscription;
+import com.digital_indexing.philosophers.listeners.EventSubscriber;
+import com.digital_indexing.philosophers.listeners.FairnessEvent;
+import com.digital_indexing.philosophers.listeners.FairnessListener;
 import com.digital_indexing.philosophers.listeners.ModelListener;
 import com.digital_indexing.philosophers.listeners.PhilChangedEvent;
 import com.digital_indexing.philosophers.listeners.PhilNumberSetEvent;
 import com.digital_indexing.philosophers.listeners.PhilNumberSetListener;
+import com.digital_indexing.philosophers.listeners.StarvationEvent;
 import com.digital_indexing.philosophers.listeners.SticksChangedEvent;
 import com.digital_indexing.philosophers.listeners.TimeChangedEvent;
 import com.digital_indexing.philosophers.listeners.TimeListener;
+import com.digital_indexing.philosophers.metrics.TableMetrics;
 
 /**
  * Model with data for the current state of the simulation<br>
  * <p>
- * - philosophers: array with the states of all philosophers <br>
- * - sticks: array for the sticks. In between two philosophers are three sticks of which one is set at each time. <br>
- * - timeData: tree ordered by the absolute philosophizing time for each philosopher. each value is connected to the nr. of the philosopher <br>
+ * - states: store with the state of each philosopher, the stick position of each area, the philosophizing time and the meal count of each seat. 
+ *   In between two philosophers are three sticks of which one is set at each time. The view paints from the same store.
+ *   On the heap the states are packed (4 bits per seat), a mapped store keeps everything in a memory mapped file <br>
+ * - latencies: striped table-wide histograms of the admission wait, the stick wait and the meal, and the max. wait of each seat. allocated once, cleared in place by resetLatencies after a warm-up <br>
+ * - fairness: detector of starving philosophers and unfair meal counts, updated with each meal <br>
+ * - ranking: index ordered by the absolute philosophizing time for each philosopher. a time change allocates nothing. a mapped store has no ranking index <br>
+ *   the philosophers change it under the write lock of a StampedLock. other threads read versioned snapshots, 
+ *   copied in an optimistic read section, so readers never block the philosophers. the latest snapshot is cached until the next change <br>
  * <p>
- * Whenever a state of a philosopher, or a stick position, or a time value changed listeners get fired.
+ * Whenever a state of a philosopher, or a stick position, or a time value changed an event is published on the event bus.<br>
+ * Events are only created if the bus has a subscriber for them. The model and time listener are subscriptions delivered on the event dispatch thread 
+ * (model events of the same philosopher or area are coalesced). So the philosophers never wait for the gui.<br>
+ * State and stick changes are additionally published as deltas into the delta ring of the view. Publishing never blocks the philosopher.<br>
+ * If no subscriber and no delta ring is set (headless simulation) the event dispatch thread is not involved at all.
  * 
  * @author mabo
  *
@@ -41,14 +66,27 @@ public class ModelPhil implements PhilNumberSetListener {
 	
 //	---------------------------- ATTRIBUTES ----------------------------------
 	
+	private static final int LISTENER_CAPACITY = 1024;
+	private static final int OPTIMISTIC_READS = 3;
+	
 	private static ModelPhil instance;
 	
-	private ModelListener modelListener;
-	private TimeListener timeListener;
+	private EventBus bus = new EventBus();
+	private Subscription philSubscription, sticksSubscription, timeSubscription;
+	private Subscription starvationSubscription, fairnessSubscription;
+	private volatile DeltaRing deltas;
 	
-	private StatePhil[] philosophers;
-	private boolean[] sticks;
-	private TimeDataTree timeData; 
+	private static final StatePhil[] STATES = StatePhil.values();
+	
+	private StoreMode storeMode = StoreMode.HEAP;
+	private File storeFile;
+	private volatile StateStore states;
+	private RankingIndex ranking; 
+	private StampedLock rankingLock = new StampedLock();
+	private volatile RankingSnapshot snapshot;
+	private SeatLatencies latencies = new SeatLatencies(0);
+	private volatile FairnessDetector fairness;
+	private TableMetrics metrics = TableMetrics.getSingleInstance();
 	private int nrOfPhilosophers;
 	
 	
@@ -66,12 +104,93 @@ public class ModelPhil implements PhilNumberSetListener {
 	
 //	---------------------------- METHODS ----------------------------------
 		
-	public void setModelListener(ModelListener listener) {
-		this.modelListener = listener;
+	/**
+	 * replace the subscriptions of the model listener.
+	 * @param listener null to remove
+	 */
+	public void setModelListener(final ModelListener listener) 
+	{
+		if (philSubscription != null) {
+			philSubscription.cancel();
+			sticksSubscription.cancel();
+			philSubscription = sticksSubscription = null;
+		}
+		if (listener == null)
+			return;
+		philSubscription = bus.subscribe(PhilChangedEvent.class, new EventSubscriber() {
+			@Override
+			public void eventPublished(EventObject e) {
+				listener.philStateChanged((PhilChangedEvent) e);
+			}
+		}, DeliveryMode.EDT, OverflowPolicy.COALESCE, LISTENER_CAPACITY);
+		sticksSubscription = bus.subscribe(SticksChangedEvent.class, new EventSubscriber() {
+			@Override
+			public void eventPublished(EventObject e) {
+				listener.sticksChanged((SticksChangedEvent) e);
+			}
+		}, DeliveryMode.EDT, OverflowPolicy.COALESCE, LISTENER_CAPACITY);
+	}
+	
+	/**
+	 * replace the subscription of the time listener.
+	 * @param listener null to remove
+	 */
+	public void setTimeListener(final TimeListener listener) 
+	{
+		if (timeSubscription != null) {
+			timeSubscription.cancel();
+			timeSubscription = null;
+		}
+		if (listener == null)
+			return;
+		//rank moves can not be coalesced. the listener resynchronizes with the ranking if events are dropped
+		timeSubscription = bus.subscribe(TimeChangedEvent.class, new EventSubscriber() {
+			@Override
+			public void eventPublished(EventObject e) {
+				listener.philTimeChanged((TimeChangedEvent) e);
+			}
+		}, DeliveryMode.EDT, OverflowPolicy.DROP_OLDEST, LISTENER_CAPACITY);
+	}
+	
+	/**
+	 * replace the subscriptions of the fairness listener. it is called by a thread of its own, not by the philosophers.
+	 * @param listener null to remove
+	 */
+	public void setFairnessListener(final FairnessListener listener) 
+	{
+		if (starvationSubscription != null) {
+			starvationSubscription.cancel();
+			fairnessSubscription.cancel();
+			starvationSubscription = fairnessSubscription = null;
+		}
+		if (listener == null)
+			return;
+		starvationSubscription = bus.subscribe(StarvationEvent.class, new EventSubscriber() {
+			@Override
+			public void eventPublished(EventObject e) {
+				listener.starvationDetected((StarvationEvent) e);
+			}
+		}, DeliveryMode.DEDICATED, OverflowPolicy.DROP_OLDEST, LISTENER_CAPACITY);
+		fairnessSubscription = bus.subscribe(FairnessEvent.class, new EventSubscriber() {
+			@Override
+			public void eventPublished(EventObject e) {
+				listener.fairnessDropped((FairnessEvent) e);
+			}
+		}, DeliveryMode.DEDICATED, OverflowPolicy.DROP_OLDEST, LISTENER_CAPACITY);
 	}
 	
-	public void setTimeListener(TimeListener listener) {
-		this.timeListener = listener;
+	public void setDeltaRing(DeltaRing deltas) {
+		this.deltas = deltas;
+	}
+	
+	/**
+	 * storage of the seat data, used from the next reset on.
+	 * @param mode
+	 * @param file file of the mapped store
+	 */
+	public void setStore(StoreMode mode, File file) {
+		this.storeMode = mode;
+		this.storeFile = file;
 	}
 	
 	
@@ -85,23 +204,29 @@ public class ModelPhil implements PhilNumberSetListener {
 	/**
 	 * set initial position
 	 */
-	public void reset() {
-		philosophers = new StatePhil[ nrOfPhilosophers ];
-		sticks = new boolean[ nrOfPhilosophers * 3 ];
-		timeData = new TimeDataTree(nrOfPhilosophers);
-		// value initialization
-		TimeData td;
-		for (int i = 0; i < philosophers.length; i++) { 
-			philosophers[i] = StatePhil.WAITING;
-			td = new TimeData(i, 0.0);
-			timeData.add(td);
+	public void reset() 
+	{
+		if (states != null)
+			states.close();
+		if (storeMode == StoreMode.MAPPED) {
+			states = new MappedStateStore(storeFile, nrOfPhilosophers, StatePhil.WAITING.ordinal(), StateStore.MIDDLE);
+			ranking = null;
 		}
-		for (int i = 0; i < sticks.length; i++) {
-			if (i % 3 == 1)
-				sticks[i] = true;
-			else
-				sticks[i] = false;
+		else {
+			states = new PackedStateStore(nrOfPhilosophers, StatePhil.WAITING.ordinal(), StateStore.MIDDLE);
+			ranking = new RankingIndex(nrOfPhilosophers);
 		}
+		snapshot = null;
+		latencies.resize(nrOfPhilosophers);
+		fairness = new FairnessDetector(bus, nrOfPhilosophers);
+		metrics.reset();
+	}
+	
+	/**
+	 * clear the latency histograms in place. meals of the philosophers at the same time may be counted partly.
+	 */
+	public void resetLatencies() {
+		latencies.clear();
 	}
 	
 	/**
@@ -111,14 +236,12 @@ public class ModelPhil implements PhilNumberSetListener {
 	 */
 	public void setPhilState(int philNr, StatePhil state) throws InvocationTargetException, InterruptedException 
 	{
-		philosophers[philNr] = state;
-		PhilChangedEvent e = new PhilChangedEvent(this, philosophers[philNr], philNr);
-		SwingUtilities.invokeAndWait(new Runnable() {
-			@Override
-			public void run() {
-				modelListener.philStateChanged(e);	
-			}
-		});
+		states.setState(philNr, state.ordinal());
+		DeltaRing ring = deltas;
+		if (ring != null)
+			ring.publish(DeltaRing.encode(DeltaRing.PHIL, philNr, state.ordinal()));
+		if (bus.hasSubscribers(PhilChangedEvent.class))
+			bus.publish(new PhilChangedEvent(this, state, philNr));
 	}
 	
 	
@@ -131,45 +254,189 @@ public class ModelPhil implements PhilNumberSetListener {
 	 */
 	public void setSticks(int first, boolean v1, int second, boolean v2) throws InvocationTargetException, InterruptedException 
 	{
-		sticks[first] = v1;
-		sticks[second] = v2;
-		SticksChangedEvent e = new SticksChangedEvent(this, first, sticks[first], second, sticks[second]);
-		SwingUtilities.invokeAndWait(new Runnable() {
-			@Override
-			public void run() {
-				modelListener.sticksChanged(e);
-			}
-		});
+		//only the set position of an area is stored
+		int set = v1 ? first : second;
+		states.setStick(set / 3, set % 3);
+		DeltaRing ring = deltas;
+		if (ring != null)
+			ring.publish(DeltaRing.encode(DeltaRing.STICK, set, 0));
+		if (bus.hasSubscribers(SticksChangedEvent.class))
+			bus.publish(new SticksChangedEvent(this, first, v1, second, v2));
 	}
 	
 	/**
-	 * change time in time data tree. fire event.
+	 * move the stick of the area from the middle to the side of the philosopher nr x.
 	 * @param philNr
-	 * @param timeDelta
+	 * @param areaNr
 	 */
-	synchronized public void changePhilTime(int philNr, double timeDelta) throws InvocationTargetException, InterruptedException
+	public void stickTaken(int philNr, int areaNr) throws InvocationTargetException, InterruptedException 
 	{
-		double newTime = timeData.changeTimeValue(philNr, timeDelta);
-		TimeChangedEvent evt = new TimeChangedEvent(this, philNr, newTime, timeData);
-		if (timeListener == null)
-			return;
-		SwingUtilities.invokeAndWait(new Runnable() {
-			@Override
-			public void run() {
-				timeListener.philTimeChanged(evt);
+		//case 1: left
+		if (areaNr == philNr)
+			setSticks(areaNr * 3, true, areaNr * 3 + 1, false);
+		//case 2: right
+		else
+			setSticks(areaNr * 3 + 2, true, areaNr * 3 + 1, false);
+	}
+	
+	
+	/**
+	 * move the stick of the area from the side of the philosopher nr x back to the middle.
+	 * @param philNr
+	 * @param areaNr
+	 */
+	public void stickPut(int philNr, int areaNr) throws InvocationTargetException, InterruptedException 
+	{
+		//case 1: left
+		if (areaNr == philNr)
+			setSticks(areaNr * 3 + 1, true, areaNr * 3, false);
+		//case 2: right
+		else
+			setSticks(areaNr * 3 + 1, true, areaNr * 3 + 2, false);
+	}
+	
+	
+	/**
+	 * add the time to the store and move the philosopher in the ranking. fire event with the old and new rank of the philosopher.<br>
+	 * without ranking (mapped store) the ranks of the event are -1.
+	 * @param philNr
+	 * @param timeDelta in milliseconds
+	 */
+	public void changePhilTime(int philNr, double timeDelta) throws InvocationTargetException, InterruptedException
+	{
+		double newTime = states.addTime(philNr, timeDelta / 1000.0);
+		boolean publish = bus.hasSubscribers(TimeChangedEvent.class);
+		RankingIndex index = ranking;
+		int oldRank = -1, newRank = -1;
+		long version = 0;
+		if (index != null) {
+			long stamp = rankingLock.writeLock();
+			long start = System.nanoTime();
+			try {
+				if (publish)
+					oldRank = index.rankOf(philNr);
+				index.setTime(philNr, newTime);
+				if (publish)
+					newRank = index.rankOf(philNr);
+				version = index.getVersion();
+			}
+			finally {
+				rankingLock.unlockWrite(stamp);
 			}
-		});
+			metrics.rankingUpdated(System.nanoTime() - start);
+		}
+		//published outside of the lock, a subscriber may block (or read the ranking). the versions may overtake each other, RankingTableModel reorders them
+		if (publish)
+			bus.publish(new TimeChangedEvent(this, philNr, oldRank, newRank, newTime, version));
+	}
+	
+	
+	/**
+	 * consistent copy of the current ranking, without blocking the philosophers.<br>
+	 * the times are copied in an optimistic read section. only if it fails repeatedly the read lock is taken.
+	 * @return snapshot, shared with other readers of the same version
+	 */
+	public RankingSnapshot getRankingSnapshot()
+	{
+		RankingIndex index = ranking;
+		if (index == null)
+			return copyStoreTimes();
+		RankingSnapshot cached = snapshot;
+		long stamp = rankingLock.tryOptimisticRead();
+		if (cached != null && cached.getVersion() == index.getVersion() && rankingLock.validate(stamp))
+			return cached;
+		
+		double[] times = new double[index.getNrOfPhils()];
+		long version = -1;
+		for (int i = 0; i < OPTIMISTIC_READS && version < 0; i++) {
+			stamp = rankingLock.tryOptimisticRead();
+			long v = index.getVersion();
+			index.copyTimes(times);
+			if (rankingLock.validate(stamp))
+				version = v;
+		}
+		if (version < 0) {
+			stamp = rankingLock.readLock();
+			try {
+				version = index.getVersion();
+				index.copyTimes(times);
+			}
+			finally {
+				rankingLock.unlockRead(stamp);
+			}
+		}
+		RankingSnapshot result = new RankingSnapshot(version, times);
+		//a concurrent reader may have cached a newer one
+		if (index == ranking && (cached == null || cached.getVersion() < version))
+			snapshot = result;
+		return result;
+	}
+	
+	/**
+	 * without ranking index the times are copied from the store. the snapshot has no version.
+	 */
+	private RankingSnapshot copyStoreTimes() 
+	{
+		StateStore store = states;
+		double[] times = new double[store.size()];
+		for (int i = 0; i < times.length; i++)
+			times[i] = store.getTime(i);
+		return new RankingSnapshot(0, times);
+	}
+	
+	
+	/**
+	 * count a finished meal of the philosopher nr x.
+	 * @param philNr
+	 */
+	public void mealFinished(int philNr) throws InterruptedException 
+	{
+		states.incrementMeals(philNr);
+		metrics.mealFinished();
+		fairness.mealFinished(philNr, System.nanoTime());
 	}
 	
 	
 //	----------------------------- GETTERS -----------------------------
 	
+	public EventBus getEventBus() {
+		return bus;
+	}
+	
 	public int getNrOfPhilosophers() {
 		return nrOfPhilosophers;
 	}
 	
+	public FairnessDetector getFairness() {
+		return fairness;
+	}
+	
+	public SeatLatencies getLatencies() {
+		return latencies;
+	}
+	
+	public StateStore getStateStore() {
+		return states;
+	}
+	
+	public StatePhil getPhilState(int philNr) {
+		return STATES[states.getState(philNr)];
+	}
+	
 	public boolean getStickValue(int nr) {
-		return sticks[nr];
+		return states.getStick(nr / 3) == nr % 3;
+	}
+	
+	public long getMealCount(int philNr) {
+		return states.getMeals(philNr);
+	}
+	
+	public long getTotalMeals() {
+		StateStore store = states;
+		long total = 0;
+		for (int i = 0; i < store.size(); i++)
+			total += store.getMeals(i);
+		return total;
 	}
 
 }
@@ -0,0 +1,90 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+
+import com.digital_indexing.philosophers.metrics.TableMetrics;
+
+/**
+ * Stick arbitration by the monitors of the supervisor.<br>
+ * Each access to the stick array of the model runs in a synchronized phase on the monitor of the area. 
+ * A philosopher waits on the monitor if the stick is taken and gets notified when it is put back.
+ * 
+ * @author mabo
+ *
+ */
+public class MonitorStickArbiter implements StickArbiter {
+	
+//	---------------------------- ATTRIBUTES ----------------------------------
+	
+	private ModelPhil model;
+	private Supervisor superVisor;
+	private TableMetrics metrics;
+	
+	
+//	---------------------------- CONSTRUCTOR ----------------------------------
+	
+	public MonitorStickArbiter(Supervisor sv) {
+		model = ModelPhil.getSingleInstance();
+		superVisor = sv;
+		metrics = TableMetrics.getSingleInstance();
+		metrics.countMonitorContention(model.getNrOfPhilosophers());
+	}
+	
+	
+//	---------------------------- METHODS ----------------------------------
+
+	@Override
+	public void takeStick(int philNr, int areaNr) throws InterruptedException, InvocationTargetException 
+	{
+		//block monitor with number of the area left or right
+		synchronized (superVisor.getMonitor(areaNr)) {
+			if (!model.getStickValue(areaNr * 3 + 1))
+				metrics.monitorContended(areaNr);
+			while (!model.getStickValue(areaNr * 3 + 1))
+				superVisor.getMonitor(areaNr).wait();
+			model.stickTaken(philNr, areaNr);
+		}
+	}
+	
+	
+	@Override
+	public boolean tryTakeStick(int philNr, int areaNr, long timeout) throws InterruptedException, InvocationTargetException 
+	{
+		long deadline = System.nanoTime() + timeout;
+		synchronized (superVisor.getMonitor(areaNr)) {
+			if (!model.getStickValue(areaNr * 3 + 1))
+				metrics.monitorContended(areaNr);
+			while (!model.getStickValue(areaNr * 3 + 1)) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0)
+					return false;
+				TimeUnit.NANOSECONDS.timedWait(superVisor.getMonitor(areaNr), remaining);
+			}
+			model.stickTaken(philNr, areaNr);
+			return true;
+		}
+	}
+	
+	
+	@Override
+	public void putStick(int philNr, int areaNr) throws InterruptedException, InvocationTargetException 
+	{
+		//block monitor with number of the area left or right
+		synchronized (superVisor.getMonitor(areaNr)) {
+			model.stickPut(philNr, areaNr);
+			superVisor.getMonitor(areaNr).notify();
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Global resource ordering: every philosopher takes the stick with the lower area number first.<br>
+ * No cycle of waiting philosophers can form, so no admission is needed.
+ * 
+ * @author mabo
+ *
+ */
+public class OrderedStrategy implements DeadlockStrategy {
+	
+//	---------------------------- ATTRIBUTES ----------------------------------
+	
+	private StickArbiter sticks;
+	
+	
+//	---------------------------- CONSTRUCTOR ----------------------------------
+	
+	public OrderedStrategy(StickArbiter sticks) {
+		this.sticks = sticks;
+	}
+	
+	
+//	---------------------------- METHODS ----------------------------------
+
+	@Override
+	public void sit(int philNr) {
+	}
+
+	@Override
+	public void takeSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException {
+		sticks.takeStick(philNr, Math.min(leftAreaNr, rightAreaNr));
+		sticks.takeStick(philNr, Math.max(leftAreaNr, rightAreaNr));
+	}
+
+	@Override
+	public void putSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException {
+		sticks.putStick(philNr, Math.max(leftAreaNr, rightAreaNr));
+		sticks.putStick(philNr, Math.min(leftAreaNr, rightAreaNr));
+	}
+
+	@Override
+	public void leave(int philNr) {
+	}
+
+}
@@ -10,36 +10,45 @@
  */
 package com.digital_indexing.philosophers.system;
 
-import java.lang.reflect.InvocationTargetException;
-
-import javax.swing.SwingWorker;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
 
+import com.digital_indexing.philosophers.auxiliary.ActionTimes;
 import com.digital_indexing.philosophers.auxiliary.Logger4Philosophers;
+import com.digital_indexing.philosophers.auxiliary.SeatLatencies;
+import com.digital_indexing.philosophers.enums.DistributionMode;
+import com.digital_indexing.philosophers.enums.LatencyKind;
 import com.digital_indexing.philosophers.enums.StatePhil;
 
 /**
- * Class represents a philosopher and implements SwingWorker.<br>
+ * Class represents a philosopher and implements Callable. It is submitted to the executor of ControllerPhil.<br>
+ * No swing class is used, so the same logic runs in the gui and in a headless simulation.<br>
+ * The durations are drawn from the own random stream of the philosopher (see RandomStreams) with the configured distribution (see ActionTimes).<br>
+ * The waits for a seat and for the sticks and the meal are recorded in the latency histograms of the seat. 
+ * The histograms are looked up for each meal, so the model can replace them after a warm-up.<br>
  * <p>
  * Each philosopher runs in a infinite loop.<br>
  * Order:<br>
  * <ol>
  * <li>philosophizing</li>
  * <li>set time value in model</li>
- * <li>try to take sticks. each access to the stick array runs in a synchronized phase</li>
+ * <li>sit down and try to take sticks. the order and the admission are given by the DeadlockStrategy, the access to the sticks is arbitrated by a StickArbiter</li>
  * <li>eating</li>
  * <li>drop sticks</li>
- * <li>leave of table. managed by supervisor to prevent all philosophers sitting at the table to prevent deadlocks</li>
+ * <li>leave of table. with the waiter strategy managed by supervisor to prevent all philosophers sitting at the table to prevent deadlocks</li>
  * </ol>
  * @author mabo
  *
  */
-public class Philosopher extends SwingWorker<Void, Void> {
+public class Philosopher implements Callable<Void> {
 	
 	
 //	---------------------------- ATTRIBUTES ----------------------------------
 	
 	private ModelPhil model;
-	private Supervisor superVisor;
+	private DeadlockStrategy strategy;
+	private SplittableRandom random;
+	private DistributionMode distribution;
 	private int actionTime;
 	private int philNr;
 	private int rightAreaNr, leftAreaNr;
@@ -48,13 +57,25 @@ public class Philosopher extends SwingWorker<Void, Void> {
 //	---------------------------- CONSTRUCTOR ----------------------------------
 	
 	public Philosopher(int philNr, int actionTime, Supervisor sv) 
+	{
+		this(philNr, actionTime, new WaiterStrategy(sv, new MonitorStickArbiter(sv)), new SplittableRandom());
+	}
+	
+	public Philosopher(int philNr, int actionTime, DeadlockStrategy strategy, SplittableRandom random) 
+	{
+		this(philNr, actionTime, strategy, random, DistributionMode.UNIFORM);
+	}
+	
+	public Philosopher(int philNr, int actionTime, DeadlockStrategy strategy, SplittableRandom random, DistributionMode distribution) 
 	{
 		//get model
 		model = ModelPhil.getSingleInstance();
 		
 		//set attriubutes
 		this.actionTime = actionTime;
-		superVisor = sv;	
+		this.strategy = strategy;
+		this.random = random;
+		this.distribution = distribution;
 		int nrOfPhils = model.getNrOfPhilosophers();
 		this.philNr = philNr;
 		
@@ -65,32 +86,39 @@ public class Philosopher extends SwingWorker<Void, Void> {
 
 	
 	@Override
-	protected Void doInBackground() throws Exception 
+	public Void call() throws Exception 
 	{
 		while (true) 
 		{
 			try {
 				// philosophing
 				model.setPhilState(philNr, StatePhil.PHILOSOPHIZING);
-				long philTime = Math.round(Math.random() * actionTime);
+				long philTime = ActionTimes.draw(distribution, random, actionTime);
 				Thread.sleep(philTime);
 				model.changePhilTime(philNr, philTime);
 						
 				// waiting and try to take sticks
 				model.setPhilState(philNr, StatePhil.WAITING);
-				superVisor.allowToSit();
-				takeStick(rightAreaNr);
-				takeStick(leftAreaNr);
+				long start = System.nanoTime();
+				strategy.sit(philNr);
+				long seated = System.nanoTime();
+				strategy.takeSticks(philNr, leftAreaNr, rightAreaNr);
+				long served = System.nanoTime();
+				SeatLatencies latencies = model.getLatencies();
+				latencies.record(LatencyKind.ADMISSION, philNr, seated - start);
+				latencies.record(LatencyKind.FORKS, philNr, served - seated);
+				latencies.record(LatencyKind.WAIT, philNr, served - start);
 				
 				//eat
 				model.setPhilState(philNr, StatePhil.EATING);
-				Thread.sleep(Math.round(Math.random() * actionTime));
+				Thread.sleep(ActionTimes.draw(distribution, random, actionTime));
+				latencies.record(LatencyKind.EATING, philNr, System.nanoTime() - served);
 				
 				// put sticks and leave
-				putStick(rightAreaNr);
 				model.setPhilState(philNr, StatePhil.WAITING);
-				putStick(leftAreaNr);	
-				superVisor.allowToLeave();
+				strategy.putSticks(philNr, leftAreaNr, rightAreaNr);
+				strategy.leave(philNr);
+				model.mealFinished(philNr);
 			}
 			catch (InterruptedException e) {
 				Logger4Philosophers.logger4Philosophers.error(e.getMessage());
@@ -99,41 +127,4 @@ public class Philosopher extends SwingWorker<Void, Void> {
 		}
 	}
 	
-	
-	void takeStick (int areaNr) throws InterruptedException, InvocationTargetException 
-	{
-		//block monitor with number of the are left or right
-		synchronized (superVisor.getMonitor(areaNr)) {
-			//case 1: left
-			if (areaNr == philNr) {
-				if (!model.getStickValue(areaNr * 3 + 1))
-					superVisor.getMonitor(areaNr).wait();
-				model.setSticks(areaNr * 3, true, areaNr * 3 + 1, false);
-			}
-			//case 2: right
-			else {
-				if (!model.getStickValue(areaNr * 3 + 1))
-					superVisor.getMonitor(areaNr).wait();
-				model.setSticks( areaNr * 3 + 2, true, areaNr * 3 + 1, false);
-			}
-		}
-	}
-	
-	
-	void putStick (int areaNr) throws InvocationTargetException, InterruptedException 
-	{
-		//block monitor with number of the are left or right
-		synchronized (superVisor.getMonitor(areaNr)) {
-			//case 1: left
-			if (areaNr == philNr) {
-				model.setSticks(areaNr * 3 + 1, true, areaNr * 3, false);
-			}
-			//case 2: right
-			else {
-				model.setSticks(areaNr * 3 + 1, true, areaNr * 3 + 2, false);
-			}
-			superVisor.getMonitor(areaNr).notify();
-		}
-	}
-	
 }
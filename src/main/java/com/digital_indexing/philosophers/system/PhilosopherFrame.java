@@ -49,8 +49,8 @@ import com.digital_indexing.philosophers.listeners.PhilNumberSetListener;
  * ViewPhil<br>
  * - TimeListener: If the philosophizing time of a philosopher ends and is set in the model the following classes get informed by the model ModelPhil:<br>
  * RankingDialog
- * - ModelListener: If the state of a philosopher or the position of a stick changes the following classes get informed by the model ModelPhil:<br>
- * ViewPhil
+ * - DeltaRing: If the state of a philosopher or the position of a stick changes the model ModelPhil publishes a delta into the ring of:<br>
+ * ViewPhil (drained once per frame)
  * 
  * @author mabo
  *
@@ -146,7 +146,7 @@ public class PhilosopherFrame extends JFrame implements PhilNumberSetListener {
 		this.philNrSetListener.add(model);	
 		this.philNrSetListener.add(view);
 		this.philNrSetListener.add(this);
-		model.setModelListener(view);
+		model.setDeltaRing(view.getDeltaRing());
 		modeListener = view;
 	}
 	
@@ -335,6 +335,7 @@ public class PhilosopherFrame extends JFrame implements PhilNumberSetListener {
 			ranking.setVisible(false);
 			ranking.dispose();
 			ranking = null;
+			model.setTimeListener(null);
 		}
 		if (mode != ModePhil.OFF) {
 			ranking = new RankingDialog(this, mode, nrOfPhilosophers);
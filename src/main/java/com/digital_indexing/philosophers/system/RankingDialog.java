@@ -10,20 +10,19 @@
  */
 package com.digital_indexing.philosophers.system;
 
-import java.awt.BorderLayout;
-import java.awt.FlowLayout;
-import java.awt.GridLayout;
+import java.awt.Dimension;
 import java.awt.Point;
-import java.util.TreeSet;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 
 import javax.swing.BorderFactory;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
-import javax.swing.JLabel;
-import javax.swing.JPanel;
-import javax.swing.JTextField;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.DefaultTableCellRenderer;
 
-import com.digital_indexing.philosophers.auxiliary.TimeData;
 import com.digital_indexing.philosophers.enums.ModePhil;
 import com.digital_indexing.philosophers.listeners.TimeChangedEvent;
 import com.digital_indexing.philosophers.listeners.TimeListener;
@@ -31,8 +30,10 @@ import com.digital_indexing.philosophers.listeners.TimeListener;
 /**
  * Ranking of the philosophers.<br>
  * Each time the philosophizing time of a philosopher finished the TimeListener method gets invoked.<br>
- * The time-TextField of the related philosopher gets updated.<br>
- * If the order of the philosophers gets changed in this way, the corresponding Labels (for name) and TextFields (for time) are newly positioned in the Panel array (method: swapPhilosophers)<br> 
+ * The ranking is a JTable on a RankingTableModel in a scroll pane. The model reports only the rows whose philosopher or time changed, 
+ * and the table repaints only those of them that are visible. There are no components per philosopher, so the dialog works with tens of thousands of rows.<br>
+ * The viewport shows at most VISIBLE_ROWS rows.<br>
+ * A timer resynchronizes the model if it holds back events whose predecessors never arrived (see RankingTableModel.expireHeld).
  * 
  * @author mabo
  *
@@ -41,10 +42,12 @@ public class RankingDialog extends JDialog implements TimeListener {
 	
 //	------------------------- ATTRIBUTES --------------------------
 	
-	private JLabel[] nameLabels;
-	private JTextField[] timeValues;
-	private JPanel[][] panels;
-	private int[] rankedPhilosophers;
+	private static final int VISIBLE_ROWS = 20;
+	private static final int EXPIRE_INTERVAL = 100;
+	
+	private RankingTableModel model;
+	private JTable table;
+	private Timer expireTimer;
 	
 	
 //	-------------------------- CONSTRUCTOR ------------------------
@@ -60,8 +63,15 @@ public class RankingDialog extends JDialog implements TimeListener {
 		int w = mainFrame.getWidth();
 		Point mainLoc = mainFrame.getLocationOnScreen();
 		setLocation(mainLoc.x + w, mainLoc.y);
-		setResizable(false);
 		setVisible(true);
+
+		expireTimer = new Timer(EXPIRE_INTERVAL, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				model.expireHeld(System.nanoTime());
+			}
+		});
+		expireTimer.start();
 	}
 
 	
@@ -69,118 +79,39 @@ public class RankingDialog extends JDialog implements TimeListener {
 
 	private void buildInitialLayout(ModePhil mode, int nrOfPhilosophers) 
 	{
-		//main panels
-		JPanel main = new JPanel(new BorderLayout(15, 5));
-		JPanel left = new JPanel(new GridLayout(nrOfPhilosophers + 1, 1, 0, 5));
-		JPanel right = new JPanel(new GridLayout(nrOfPhilosophers + 1, 2, 0, 5));
-		main.setBorder(BorderFactory.createEmptyBorder(5, 15, 5, 5));
-		main.add(left, BorderLayout.WEST);
-		main.add(right, BorderLayout.CENTER);
-		getContentPane().add(main);
+		model = new RankingTableModel(mode, nrOfPhilosophers);
+		table = new JTable(model);
+		table.setFillsViewportHeight(true);
+		table.setRowSelectionAllowed(false);
+		table.getTableHeader().setReorderingAllowed(false);
 		
-		//title
-		left.add(new JLabel("Rank"));
-		right.add(new JLabel("Philosopher"));
-		right.add(new JLabel("Philosophy-Time (sec.)"));
+		//rank and time right aligned
+		DefaultTableCellRenderer right = new DefaultTableCellRenderer();
+		right.setHorizontalAlignment(DefaultTableCellRenderer.RIGHT);
+		table.getColumnModel().getColumn(RankingTableModel.RANK).setCellRenderer(right);
+		table.getColumnModel().getColumn(RankingTableModel.TIME).setCellRenderer(right);
+		table.getColumnModel().getColumn(RankingTableModel.RANK).setPreferredWidth(50);
+		table.getColumnModel().getColumn(RankingTableModel.PHILOSOPHER).setPreferredWidth(180);
+		table.getColumnModel().getColumn(RankingTableModel.TIME).setPreferredWidth(150);
 		
-		//center
-		nameLabels = new JLabel[nrOfPhilosophers];
-		timeValues = new JTextField[nrOfPhilosophers];
-		panels = new JPanel[nrOfPhilosophers][2];
-		rankedPhilosophers = new int[nrOfPhilosophers];
-		String baseString = mode.getOther();
-		int startCodePoint = ModePhil.NORMALO == mode ? 65 : 64;
-		JPanel panel;
-		String philosopher;
-		
-		//left->rank number right->name-label and time-textfield
-		for (int i = 0; i < nrOfPhilosophers; i++) {
-			rankedPhilosophers[i] = i;
-			panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
-			panel.add(new JLabel(String.format("%d", i + 1)));
-			left.add(panel);
-			if (i == 0) {
-				nameLabels[i] = new JLabel(mode.getHead());
-			}
-			else {
-				philosopher = String.format("%s %s", baseString, String.valueOf((char) (startCodePoint + i)));
-				nameLabels[i] = new JLabel(philosopher);
-			}
-			timeValues[i] = new JTextField(String.format("%.4f", 0.0), 11);
-			timeValues[i].setEditable(false);
-			panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
-			panel.add(nameLabels[i]);
-			right.add(panel);
-			panels[i][0] = panel;
-			panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
-			panel.add(timeValues[i]);
-			right.add(panel);
-			panels[i][1] = panel;
-		}
+		int rows = Math.min(nrOfPhilosophers, VISIBLE_ROWS);
+		table.setPreferredScrollableViewportSize(new Dimension(380, rows * table.getRowHeight()));
+		JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+		getContentPane().add(scrollPane);
 	}
 
 
 	@Override
-	public void philTimeChanged(TimeChangedEvent e) 
-	{
-		if (e == null)
-			return;
-		//get relevant data
-		TreeSet<TimeData> tree = e.timeData;
-		TimeData[] data = tree.toArray(new TimeData[tree.size()]);
-		int nrOfUpdated = e.philNr;
-		TimeData philData;
-		int philNrData, philNrRow;
-		
-		//loop over data, sorted in decreasing time-order
-		for (int i = data.length - 1; i >= 0; i--) {
-			philData = data[i];
-			philNrData = philData.philNr;
-			philNrRow = rankedPhilosophers[i];
-			
-			//update the time-textfield of the philosopher whose time has changed
-			if (philNrRow == nrOfUpdated) {
-				JTextField tf = timeValues[philNrRow];
-				tf.setText(String.format("%.4f", e.newTime));
-			}
-			
-			//swap philosophers if the panel order and the data order are inconsistent
-			if (philNrRow != philNrData) {
-				swapPhilosophers(i, philNrRow, philNrData, nrOfUpdated);
-			}
-		}
-		
-		//repaint
-		revalidate();
-		repaint();
+	public void philTimeChanged(TimeChangedEvent e) {
+		model.philTimeChanged(e);
 	}
 
 
-	private void swapPhilosophers(int row, int philNrRow, int philNrData, int nrOfUpdated) 
-	{
-		// get row nr to swap
-		int rowToSwap = 0;
-		for (int i = 0; i < rankedPhilosophers.length; i++) {
-			if (rankedPhilosophers[i] == philNrData) {
-				rowToSwap = i;
-				break;
-			}
-		}
-		
-		//do swap
-		panels[row][0].removeAll();
-		panels[row][0].add(nameLabels[philNrData]);
-		panels[row][1].removeAll();
-		panels[row][1].add(timeValues[philNrData]);
-		rankedPhilosophers[row] = philNrData;
-		panels[rowToSwap][0].removeAll();
-		panels[rowToSwap][0].add(nameLabels[philNrRow]);
-		panels[rowToSwap][1].removeAll();
-		panels[rowToSwap][1].add(timeValues[philNrRow]);
-		rankedPhilosophers[rowToSwap] = philNrRow;
+	@Override
+	public void dispose() {
+		expireTimer.stop();
+		super.dispose();
 	}
 	
 }
-
-
-
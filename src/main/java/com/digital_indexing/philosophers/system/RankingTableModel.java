@@ -0,0 +1,221 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import javax.swing.table.AbstractTableModel;
+
+import com.digital_indexing.philosophers.auxiliary.RankingSnapshot;
+import com.digital_indexing.philosophers.enums.ModePhil;
+import com.digital_indexing.philosophers.listeners.TimeChangedEvent;
+import com.digital_indexing.philosophers.listeners.TimeListener;
+
+/**
+ * Table model of the ranking: one row per rank with rank, name and philosophizing time.<br>
+ * <p>
+ * Only the order of the philosophers and their times are kept (two arrays). Names and time texts are built when a cell is painted,
+ * so a table with many philosophers costs nothing for the rows outside of the viewport.<br>
+ * A TimeChangedEvent moves the philosopher from its old to its new rank. Only the rows in between change and only they are reported (fireTableRowsUpdated),
+ * a change of the time alone is reported as a single cell. The JTable repaints the reported rows that are visible.<br>
+ * The philosophers publish their events after they released the ranking, so events may arrive out of order by a few versions.
+ * An event ahead of the next version is held back in a window of HOLD_WINDOW versions until the missing ones arrived.
+ * Only an event beyond the window or a gap older than HOLD_NANOS (see expireHeld, events have been dropped)
+ * reads a snapshot of the ranking of ModelPhil and reports all rows.
+ *
+ * @author mabo
+ *
+ */
+public class RankingTableModel extends AbstractTableModel implements TimeListener {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	public static final int RANK = 0;
+	public static final int PHILOSOPHER = 1;
+	public static final int TIME = 2;
+
+	public static final int HOLD_WINDOW = 64;
+	public static final long HOLD_NANOS = 200000000L;
+
+	private static final String[] COLUMN_NAMES = { "Rank", "Philosopher", "Philosophy-Time (sec.)" };
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private ModePhil mode;
+	private int[] rankedPhilosophers;
+	private double[] times;
+	private long version;
+	private TimeChangedEvent[] held = new TimeChangedEvent[HOLD_WINDOW];
+	private int nrOfHeld;
+	private long heldSince;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	public RankingTableModel(ModePhil mode, int nrOfPhilosophers)
+	{
+		this.mode = mode;
+		rankedPhilosophers = new int[nrOfPhilosophers];
+		times = new double[nrOfPhilosophers];
+		for (int i = 0; i < nrOfPhilosophers; i++)
+			rankedPhilosophers[i] = i;
+	}
+
+
+//	---------------------------- TABLE MODEL ----------------------------------
+
+	@Override
+	public int getRowCount() {
+		return rankedPhilosophers.length;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return COLUMN_NAMES.length;
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return COLUMN_NAMES[column];
+	}
+
+	@Override
+	public Object getValueAt(int row, int column)
+	{
+		int philNr = rankedPhilosophers[row];
+		switch (column) {
+		case RANK:
+			return String.valueOf(row + 1);
+		case PHILOSOPHER:
+			return getName(philNr);
+		default:
+			return String.format("%.4f", times[philNr]);
+		}
+	}
+
+
+	/**
+	 * the head of the mode, the others with their letter (with their number if the letters are used up).
+	 */
+	public String getName(int philNr)
+	{
+		if (philNr == 0)
+			return mode.getHead();
+		return String.format("%s %s", mode.getOther(), mode.getLetter(philNr));
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	@Override
+	public void philTimeChanged(TimeChangedEvent e)
+	{
+		if (e == null || e.version <= version)
+			return;
+		if (e.version > version + HOLD_WINDOW) {
+			//events have been dropped
+			resynchronize(ModelPhil.getSingleInstance().getRankingSnapshot());
+			return;
+		}
+		if (e.version != version + 1) {
+			//delivered out of order: hold back until the versions in between arrived
+			int slot = (int) (e.version % HOLD_WINDOW);
+			if (held[slot] == null) {
+				if (nrOfHeld++ == 0)
+					heldSince = System.nanoTime();
+			}
+			held[slot] = e;
+			return;
+		}
+		apply(e);
+		applyHeld();
+	}
+
+
+	/**
+	 * resynchronize if a held back event waits for longer than HOLD_NANOS. invoked periodically on the event dispatch thread.
+	 */
+	public void expireHeld(long now)
+	{
+		if (nrOfHeld > 0 && now - heldSince > HOLD_NANOS)
+			resynchronize(ModelPhil.getSingleInstance().getRankingSnapshot());
+	}
+
+
+	private void applyHeld()
+	{
+		while (nrOfHeld > 0) {
+			int slot = (int) ((version + 1) % HOLD_WINDOW);
+			TimeChangedEvent next = held[slot];
+			if (next == null || next.version != version + 1)
+				return;
+			held[slot] = null;
+			nrOfHeld--;
+			apply(next);
+		}
+	}
+
+
+	private void apply(TimeChangedEvent e)
+	{
+		version = e.version;
+		times[e.philNr] = e.newTime;
+		if (e.oldRank == e.newRank) {
+			fireTableCellUpdated(e.newRank, TIME);
+			return;
+		}
+		//move the rows in between by one and put the philosopher to its new row
+		if (e.newRank < e.oldRank)
+			System.arraycopy(rankedPhilosophers, e.newRank, rankedPhilosophers, e.newRank + 1, e.oldRank - e.newRank);
+		else
+			System.arraycopy(rankedPhilosophers, e.oldRank + 1, rankedPhilosophers, e.oldRank, e.newRank - e.oldRank);
+		rankedPhilosophers[e.newRank] = e.philNr;
+		fireTableRowsUpdated(Math.min(e.oldRank, e.newRank), Math.max(e.oldRank, e.newRank));
+	}
+
+
+	void resynchronize(RankingSnapshot snapshot)
+	{
+		if (snapshot.size() != rankedPhilosophers.length)
+			return;
+		for (int row = 0; row < rankedPhilosophers.length; row++) {
+			int philNr = snapshot.philAt(row);
+			rankedPhilosophers[row] = philNr;
+			times[philNr] = snapshot.getTime(philNr);
+		}
+		version = snapshot.getVersion();
+		fireTableRowsUpdated(0, rankedPhilosophers.length - 1);
+		//held back events older than the snapshot are dropped, newer ones follow it
+		for (int i = 0; i < held.length; i++) {
+			if (held[i] != null && held[i].version <= version) {
+				held[i] = null;
+				nrOfHeld--;
+			}
+		}
+		heldSince = System.nanoTime();
+		applyHeld();
+	}
+
+
+//	----------------------------- GETTERS -----------------------------
+
+	public int philAt(int row) {
+		return rankedPhilosophers[row];
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public int getNrOfHeld() {
+		return nrOfHeld;
+	}
+
+}
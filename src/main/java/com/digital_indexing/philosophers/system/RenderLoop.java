@@ -0,0 +1,208 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.Timer;
+
+import com.digital_indexing.philosophers.auxiliary.DeltaRing;
+
+/**
+ * Render loop of the view at a fixed frame rate, independent of the rate of the model.<br>
+ * <p>
+ * The model publishes its changes into a DeltaRing without waiting. A swing timer ticks at the frame rate on the event dispatch thread.
+ * Each tick drains the ring into the renderer and lets it render one frame if anything changed.
+ * So the view never renders more frames than the frame rate, however fast the philosophers change their states.<br>
+ * <p>
+ * Statistics (written by the event dispatch thread only):<br>
+ * - rendered frames: ticks with deltas or with dropped deltas<br>
+ * - idle ticks: nothing changed, nothing is rendered<br>
+ * - coalesced frames: deltas merged into a frame together with others. a repaint per change would have rendered each of them as a frame of its own<br>
+ * - dropped frames: ticks that did not happen in time, because the event dispatch thread was busy (the timer coalesces late ticks)<br>
+ * - overflows: frames rendered entirely, because the ring was full and deltas have been dropped
+ *
+ * @author mabo
+ *
+ */
+public class RenderLoop {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	public static final int DEFAULT_FPS = 60;
+	public static final int MAX_FPS = 1000;
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private DeltaRing deltas;
+	private Renderer renderer;
+	private Timer timer;
+	private DeltaRing.Consumer counting;
+
+	private int frameRate;
+	private long period;
+	private long lastTick;
+	private int frameDeltas;
+
+	private volatile long renderedFrames;
+	private volatile long idleTicks;
+	private volatile long coalescedFrames;
+	private volatile long droppedFrames;
+	private volatile long overflows;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	/**
+	 * @param deltas drained once per frame
+	 * @param renderer gets the deltas and renders the frames
+	 * @param frameRate frames per second (1 - MAX_FPS)
+	 */
+	public RenderLoop(DeltaRing deltas, Renderer renderer, int frameRate)
+	{
+		this.deltas = deltas;
+		this.renderer = renderer;
+		counting = new DeltaRing.Consumer() {
+			@Override
+			public void accept(long delta) {
+				frameDeltas++;
+				RenderLoop.this.renderer.accept(delta);
+			}
+		};
+		timer = new Timer(1000, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				tick(System.nanoTime());
+			}
+		});
+		timer.setCoalesce(true);
+		setFrameRate(frameRate);
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	public void start() {
+		lastTick = 0;
+		timer.start();
+	}
+
+	public void stop() {
+		timer.stop();
+	}
+
+
+	/**
+	 * one frame: drain the ring and render if anything changed.
+	 * @param now System.nanoTime() of the tick
+	 */
+	void tick(long now)
+	{
+		//ticks missed since the last one, with half a period of tolerance
+		if (lastTick != 0) {
+			long missed = (now - lastTick + period / 2) / period - 1;
+			if (missed > 0)
+				droppedFrames += missed;
+		}
+		lastTick = now;
+
+		frameDeltas = 0;
+		deltas.drain(counting);
+		boolean overflow = deltas.clearOverflow();
+		if (frameDeltas == 0 && !overflow) {
+			idleTicks++;
+			return;
+		}
+		if (overflow)
+			overflows++;
+		if (frameDeltas > 1)
+			coalescedFrames += frameDeltas - 1;
+		renderedFrames++;
+		renderer.render(overflow);
+	}
+
+
+	/**
+	 * drop all published deltas without rendering them (e.g. of a previous simulation).
+	 */
+	public void discard()
+	{
+		deltas.drain(new DeltaRing.Consumer() {
+			@Override
+			public void accept(long delta) {
+			}
+		});
+		deltas.clearOverflow();
+	}
+
+
+	public void resetStatistics() {
+		renderedFrames = idleTicks = coalescedFrames = droppedFrames = overflows = 0;
+	}
+
+
+//	----------------------------- SETTERS -----------------------------
+
+	/**
+	 * @param frameRate frames per second (1 - MAX_FPS). the timer works in milliseconds, so the period is rounded down to them
+	 */
+	public void setFrameRate(int frameRate)
+	{
+		if (frameRate < 1 || frameRate > MAX_FPS)
+			throw new IllegalArgumentException(String.format("Frame rate must be between 1 and %d: %d", MAX_FPS, frameRate));
+		this.frameRate = frameRate;
+		int delay = 1000 / frameRate;
+		period = delay * 1000000L;
+		timer.setDelay(delay);
+		timer.setInitialDelay(delay);
+	}
+
+
+//	----------------------------- GETTERS -----------------------------
+
+	public int getFrameRate() {
+		return frameRate;
+	}
+
+	public long getRenderedFrames() {
+		return renderedFrames;
+	}
+
+	public long getIdleTicks() {
+		return idleTicks;
+	}
+
+	public long getCoalescedFrames() {
+		return coalescedFrames;
+	}
+
+	public long getDroppedFrames() {
+		return droppedFrames;
+	}
+
+	public long getOverflows() {
+		return overflows;
+	}
+
+
+//	---------------------------- RENDERER ----------------------------------
+
+	public interface Renderer extends DeltaRing.Consumer {
+		/**
+		 * render one frame. the deltas of the frame have been handed to accept before.
+		 * @param entire deltas have been dropped, the whole state has to be rendered
+		 */
+		public void render(boolean entire);
+	}
+
+}
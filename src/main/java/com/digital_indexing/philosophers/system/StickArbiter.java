@@ -0,0 +1,35 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Arbitration of the sticks between two neighboring philosophers.<br>
+ * Each area between two philosophers holds exactly one stick. takeStick blocks until the stick of the area is free, 
+ * tryTakeStick gives up after a timeout.
+ * 
+ * @author mabo
+ *
+ */
+public interface StickArbiter {
+	
+	public void takeStick(int philNr, int areaNr) throws InterruptedException, InvocationTargetException;
+	
+	/**
+	 * @param timeout in nanoseconds
+	 * @return true if the stick has been taken, false if the timeout elapsed
+	 */
+	public boolean tryTakeStick(int philNr, int areaNr, long timeout) throws InterruptedException, InvocationTargetException;
+	
+	public void putStick(int philNr, int areaNr) throws InterruptedException, InvocationTargetException;
+
+}
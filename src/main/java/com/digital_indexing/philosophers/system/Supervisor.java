@@ -10,41 +10,67 @@
  */
 package com.digital_indexing.philosophers.system;
 
+import com.digital_indexing.philosophers.auxiliary.SimulationConfig;
+import com.digital_indexing.philosophers.enums.AdmissionMode;
+
+/**
+ * Supervisor of the table.<br>
+ * Allows at most n-1 philosophers to sit at the table at the same time to prevent deadlocks.<br>
+ * The seats are managed by an AdmissionController (striped or fair semaphores), so waiting virtual threads do not pin their carrier thread.<br>
+ * Additionally the supervisor holds one monitor object per area between two philosophers.
+ * 
+ * @author mabo
+ *
+ */
 public class Supervisor {
 	
 //	--------------------------- ATTRIBUTES -------------------------------
 	
 	private Object[] monitors;
-	private int cnt = 0;
+	private AdmissionController admission;
+	private int[] stripeOfPhil;
 	private int nrOfPhilosophers;
 	
 	
 //	--------------------- CONSTRUCTOR -----------------------------------
 	
 	public Supervisor() 
+	{
+		this(SimulationConfig.fromSystemProperties());
+	}
+	
+	public Supervisor(SimulationConfig config) 
 	{
 		nrOfPhilosophers = ModelPhil.getSingleInstance().getNrOfPhilosophers();
 		monitors = new Object[ nrOfPhilosophers ];
 		for (int i = 0; i < monitors.length; i++) {
 			monitors[i] = new Object();
 		}
+		stripeOfPhil = new int[ nrOfPhilosophers ];
+		boolean fair = config.admissionMode == AdmissionMode.FAIR;
+		admission = new AdmissionController(nrOfPhilosophers - 1, Runtime.getRuntime().availableProcessors(), fair);
 	}
 	
 	
 //	----------------------------- METHOD ---------------------------------
 	
-	synchronized public void allowToSit() throws InterruptedException {
-		if (cnt > nrOfPhilosophers - 2) 
-			wait();
-		cnt++;
+	public void allowToSit(int philNr) throws InterruptedException {
+		stripeOfPhil[philNr] = admission.acquire(philNr);
 	}
 	
-	synchronized public void allowToLeave() {
-		cnt--;
-		notify();
+	public void allowToLeave(int philNr) {
+		admission.release(stripeOfPhil[philNr]);
 	}
 	
 	public Object getMonitor(int nr) {
 		return monitors[nr];
 	}
+	
+	public AdmissionController getAdmission() {
+		return admission;
+	}
+	
+	public int getSeatedCount() {
+		return admission.getSeatedCount();
+	}
 }
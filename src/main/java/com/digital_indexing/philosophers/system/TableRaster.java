@@ -0,0 +1,228 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+import com.digital_indexing.philosophers.auxiliary.StateStore;
+import com.digital_indexing.philosophers.enums.DetailMode;
+import com.digital_indexing.philosophers.enums.StatePhil;
+
+/**
+ * Renderer of large tables for ViewPhil, the cost of a frame depends on the visible pixels and not on the nr of philosophers.<br>
+ * <p>
+ * - ring: the philosophers are arcs of a ring around the table. Each visible pixel of the ring is mapped to its philosopher once per layout, 
+ * a frame writes the state color of the philosopher into the pixel<br>
+ * - strip: the philosophers are spread over the columns of a horizontal strip. Each column samples as many philosophers of its range as it has pixels 
+ * and shows the share of each state as stacked bar<br>
+ * <p>
+ * A layout is computed whenever the nr of philosophers, the zoom or the pan changes. Screen coordinates are world coordinates (the unzoomed panel) * zoom + pan.
+ *
+ * @author mabo
+ *
+ */
+class TableRaster {
+
+//	---------------------------- CONSTANTS ----------------------------------
+
+	static final int RING_INNER_RADIUS = 225;
+	static final int RING_OUTER_RADIUS = 275;
+
+	static final int STRIP_LEFT = 20;
+	static final int STRIP_TOP = 200;
+	static final int STRIP_WIDTH = 560;
+	static final int STRIP_HEIGHT = 200;
+
+	//stacking order of the states in a column of the strip, from top to bottom
+	private static final StatePhil[] STRIP_ORDER = { StatePhil.PHILOSOPHIZING, StatePhil.EATING, StatePhil.WAITING };
+
+
+//	---------------------------- ATTRIBUTES ----------------------------------
+
+	private int width, height;
+	private int centerX, centerY;
+	private BufferedImage background;
+	private int[] stateRgb;
+
+	private BufferedImage image;
+	private int[] data;
+
+	private DetailMode mode;
+	private int nrOfSeats;
+
+	//ring: visible pixels and their philosophers
+	private int[] ringPixels = {};
+	private int[] ringSeats = {};
+	private int nrOfRingPixels;
+
+	//strip: visible columns, their first philosopher and the nr of philosophers per column
+	private int firstColumn, lastColumn, stripTop, stripBottom;
+	private double[] columnStart = {};
+	private double seatsPerColumn;
+	private int[] counts;
+
+
+//	---------------------------- CONSTRUCTOR ----------------------------------
+
+	/**
+	 * @param width of the panel
+	 * @param height of the panel
+	 * @param centerX center of the table in world coordinates
+	 * @param centerY
+	 * @param background table without philosophers in world coordinates
+	 * @param stateColors color of each state (by ordinal)
+	 */
+	TableRaster(int width, int height, int centerX, int centerY, BufferedImage background, Color[] stateColors)
+	{
+		this.width = width;
+		this.height = height;
+		this.centerX = centerX;
+		this.centerY = centerY;
+		this.background = background;
+		stateRgb = new int[stateColors.length];
+		for (int i = 0; i < stateColors.length; i++)
+			stateRgb[i] = stateColors[i].getRGB();
+		counts = new int[stateColors.length];
+		image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+	}
+
+
+//	---------------------------- METHODS ----------------------------------
+
+	/**
+	 * map the visible pixels to the philosophers and paint the background.
+	 */
+	void layout(DetailMode mode, int nrOfSeats, double zoom, double panX, double panY)
+	{
+		this.mode = mode;
+		this.nrOfSeats = nrOfSeats;
+		Graphics2D g2 = image.createGraphics();
+		g2.setColor(Color.BLACK);
+		g2.fillRect(0, 0, width, height);
+		if (mode == DetailMode.RING) {
+			g2.translate(panX, panY);
+			g2.scale(zoom, zoom);
+			g2.drawImage(background, 0, 0, null);
+		}
+		g2.dispose();
+		if (mode == DetailMode.RING)
+			layoutRing(zoom, panX, panY);
+		else
+			layoutStrip(zoom, panX, panY);
+	}
+
+
+	private void layoutRing(double zoom, double panX, double panY)
+	{
+		//screen bounds of the ring
+		double cx = centerX * zoom + panX;
+		double cy = centerY * zoom + panY;
+		double inner = RING_INNER_RADIUS * zoom;
+		double outer = RING_OUTER_RADIUS * zoom;
+		int x0 = Math.max(0, (int) Math.floor(cx - outer));
+		int x1 = Math.min(width, (int) Math.ceil(cx + outer) + 1);
+		int y0 = Math.max(0, (int) Math.floor(cy - outer));
+		int y1 = Math.min(height, (int) Math.ceil(cy + outer) + 1);
+		nrOfRingPixels = 0;
+		for (int y = y0; y < y1; y++) {
+			double dy = y + 0.5 - cy;
+			for (int x = x0; x < x1; x++) {
+				double dx = x + 0.5 - cx;
+				double r2 = dx * dx + dy * dy;
+				if (r2 < inner * inner || r2 >= outer * outer)
+					continue;
+				//the arc of the first philosopher is centered on top, the others follow clockwise like in the detail view
+				double turn = (Math.atan2(dx, -dy) / (2 * Math.PI) + 1.0) % 1.0;
+				int seat = (int) (turn * nrOfSeats + 0.5) % nrOfSeats;
+				if (nrOfRingPixels == ringPixels.length)
+					growRing();
+				ringPixels[nrOfRingPixels] = y * width + x;
+				ringSeats[nrOfRingPixels] = seat;
+				nrOfRingPixels++;
+			}
+		}
+	}
+
+
+	private void growRing() {
+		int capacity = Math.max(1024, ringPixels.length * 2);
+		ringPixels = Arrays.copyOf(ringPixels, capacity);
+		ringSeats = Arrays.copyOf(ringSeats, capacity);
+	}
+
+
+	private void layoutStrip(double zoom, double panX, double panY)
+	{
+		seatsPerColumn = nrOfSeats / (STRIP_WIDTH * zoom);
+		firstColumn = Math.max(0, (int) Math.ceil(STRIP_LEFT * zoom + panX));
+		lastColumn = Math.min(width, (int) Math.ceil((STRIP_LEFT + STRIP_WIDTH) * zoom + panX));
+		stripTop = Math.max(0, (int) Math.ceil(STRIP_TOP * zoom + panY));
+		stripBottom = Math.min(height, (int) Math.ceil((STRIP_TOP + STRIP_HEIGHT) * zoom + panY));
+		columnStart = new double[Math.max(0, lastColumn - firstColumn)];
+		for (int x = firstColumn; x < lastColumn; x++)
+			columnStart[x - firstColumn] = (x - (STRIP_LEFT * zoom + panX)) * seatsPerColumn;
+	}
+
+
+	/**
+	 * update the pixels of the philosophers and blit the image.
+	 * @param store null: all philosophers waiting
+	 */
+	void paint(Graphics2D g2, StateStore store)
+	{
+		if (mode == DetailMode.RING)
+			paintRing(store);
+		else
+			paintStrip(store);
+		g2.drawImage(image, 0, 0, null);
+	}
+
+
+	private void paintRing(StateStore store)
+	{
+		int waiting = stateRgb[StatePhil.WAITING.ordinal()];
+		for (int i = 0; i < nrOfRingPixels; i++)
+			data[ringPixels[i]] = store == null ? waiting : stateRgb[store.getState(ringSeats[i])];
+	}
+
+
+	private void paintStrip(StateStore store)
+	{
+		int rows = stripBottom - stripTop;
+		if (rows <= 0)
+			return;
+		for (int x = firstColumn; x < lastColumn; x++) {
+			//sample one philosopher per pixel of the column
+			double start = columnStart[x - firstColumn];
+			for (int i = 0; i < counts.length; i++)
+				counts[i] = 0;
+			for (int row = 0; row < rows; row++) {
+				int seat = Math.min(nrOfSeats - 1, (int) (start + seatsPerColumn * (row + 0.5) / rows));
+				counts[store == null ? StatePhil.WAITING.ordinal() : store.getState(seat)]++;
+			}
+			//stacked bar of the shares
+			int pixel = stripTop * width + x;
+			for (StatePhil state : STRIP_ORDER) {
+				int rgb = stateRgb[state.ordinal()];
+				for (int n = counts[state.ordinal()]; n > 0; n--) {
+					data[pixel] = rgb;
+					pixel += width;
+				}
+			}
+		}
+	}
+
+}
@@ -16,13 +16,24 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 
+import com.digital_indexing.philosophers.auxiliary.DeltaRing;
+import com.digital_indexing.philosophers.auxiliary.SimulationConfig;
+import com.digital_indexing.philosophers.auxiliary.StateStore;
+import com.digital_indexing.philosophers.enums.DetailMode;
 import com.digital_indexing.philosophers.enums.ModePhil;
 import com.digital_indexing.philosophers.enums.StatePhil;
 import com.digital_indexing.philosophers.listeners.ModeListener;
@@ -32,15 +43,31 @@ import com.digital_indexing.philosophers.listeners.PhilChangedEvent;
 import com.digital_indexing.philosophers.listeners.PhilNumberSetEvent;
 import com.digital_indexing.philosophers.listeners.PhilNumberSetListener;
 import com.digital_indexing.philosophers.listeners.SticksChangedEvent;
+import com.digital_indexing.philosophers.metrics.TableMetrics;
 
 /**
  * Class for painting the main panel.<br>
  * <p>
  * Overiden paintComponent method:<br>
- * - paints whole table in rested position if method is called and no flags are set<br>
- * - only overpaint circles or sticks if toUpdate flag is set. this is the case if the ModelListener methods are invoked.<br>
+ * - paints whole table in rested position if init flag is set<br>
+ * - otherwise paints the current states of the circles and sticks<br>
+ * <br>
+ * The states of the philosophers and sticks are painted from the state store of the model, the view keeps no copy of them. 
+ * The model publishes its changes into a delta ring without waiting for the view. The RenderLoop drains the ring once per frame on the event dispatch thread 
+ * (frame rate from the option fps) and repaints once if anything changed (or if deltas have been dropped because the ring was full).<br>
+ * Each frame copies the states and sticks of the circles into a snapshot, so a frame paints the table of one instant and matches its damage. 
+ * The levels of the raster read the store while painting, a snapshot would cost the nr of philosophers instead of the visible pixels.<br>
+ * Damage tracking: each delta names a philosopher or a stick, so only the bounds of its seat (circle and the sticks of its area) are marked. 
+ * A frame repaints the union of the marked bounds, and paintComponent skips the seats outside of the clip. 
+ * Dropped deltas damage the whole panel.<br>
  * <br>
  * Calculation of the circle and stick position in dependency to the nr of philosophers by sinus/cosinus calculation. Coordinates are stored in arrays scs and ccs.<br>
+ * Sprite cache: the circle of each state and the three sticks of each area with each stick position are pre-rendered into compatible images 
+ * (the stick sprites whenever the nr of philosophers changes), the table into the background image and the legend into an image of its own. 
+ * A frame only blits sprites and draws the letters.<br>
+ * Level of detail: up to SEATS_LIMIT philosophers are painted as circles with sticks and letters, up to RING_LIMIT as arcs of a ring and 
+ * more as stacked state shares of a strip (both painted by TableRaster at the cost of the visible pixels).<br>
+ * Zoom (mouse wheel) and pan (drag) apply to all levels, a double click resets them. The legend is not zoomed.<br>
  * Letters are drawn so that the philosophers can be identified int the different simulation modes.<br>
  * 
  * @author mabo
@@ -60,28 +87,58 @@ public class ViewPhil extends JPanel implements PhilNumberSetListener, ModelList
 	private static final int CENTER_CIRCLE_DIAMETER = 300; 
 	private static final int CIRCLE_DIAMETER = 50; 
 	
+	private static final BasicStroke STICK_STROKE = new BasicStroke(3.0f);
+	private static final Font LEGEND_FONT = new Font("Arial", Font.PLAIN, 16);
+	
+	private static final int LEGEND_Y = 590;
+	
+	static final int SEATS_LIMIT = 32;
+	static final int RING_LIMIT = 2048;
+	private static final double MAX_ZOOM = 1024.0;
+	private static final double ZOOM_STEP = 1.25;
+	
+	private static final int DELTA_CAPACITY = 1 << 14;
+	
 	private static final Map<StatePhil, Color> COLOR_MAP = new HashMap<>();
-	{
+	static {
 		COLOR_MAP.put(StatePhil.WAITING, new Color(255, 0, 0));
 		COLOR_MAP.put(StatePhil.EATING, new Color(160, 82, 15));
 		COLOR_MAP.put(StatePhil.PHILOSOPHIZING, new Color(0, 255, 0));
 	}
+	private static final Color[] STATE_COLORS = new Color[StatePhil.values().length];
+	static {
+		for (StatePhil state : StatePhil.values())
+			STATE_COLORS[state.ordinal()] = COLOR_MAP.get(state);
+	}
 	
 	private BufferedImage bImg;
+	private BufferedImage legendImg;
+	private BufferedImage[] circleSprites;
+	private BufferedImage[] stickSprites = {};
+	private Rectangle[] stickBoxes = {};
 	
 	private int nrOfPhilosophers;
 	private ModePhil mode;
+	private DetailMode detail = DetailMode.SEATS;
+	
+	private TableRaster raster;
+	private double zoom = 1.0;
+	private double panX, panY;
+	private int dragX, dragY;
 	
 	private CircleCoordinates[] ccs = {};
 	private StickCoordinates[] scs = {};
 	private LetterCoordinates[] lcs = {};
-	private StatePhil[] ccState;
-	private boolean[] scSet;
+	private Rectangle[] seatBounds = {};
 	
-	private boolean toUpdate;
 	private boolean init;
-	private PhilChangedEvent philEvt;
-	private SticksChangedEvent sticksEvt;
+	private Rectangle damage;
+	private boolean damagedEntirely;
+	
+	private DeltaRing deltas;
+	private RenderLoop renderLoop;
+	private int[] frameStates = {};
+	private int[] frameSticks = {};
 	
 	
 //	---------------------- CONSTRUCTOR & INSTANCE -----------------------------
@@ -90,11 +147,53 @@ public class ViewPhil extends JPanel implements PhilNumberSetListener, ModelList
 	
 	private ViewPhil() {
 		makeBImg();
+		makeLegendImg();
+		makeCircleSprites();
+		raster = new TableRaster(W_WIDTH, W_HEIGHT, TRANSLATE_COORDINATES_X, TRANSLATE_COORDINATES_Y, bImg, STATE_COLORS);
+		setBackground(Color.BLACK);
+		MouseAdapter navigation = new MouseAdapter() {
+			@Override
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				zoomAt(e.getX(), e.getY(), Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()));
+			}
+			@Override
+			public void mousePressed(MouseEvent e) {
+				dragX = e.getX();
+				dragY = e.getY();
+			}
+			@Override
+			public void mouseDragged(MouseEvent e) {
+				setView(zoom, panX + e.getX() - dragX, panY + e.getY() - dragY);
+				dragX = e.getX();
+				dragY = e.getY();
+			}
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if (e.getClickCount() == 2)
+					setView(1.0, 0.0, 0.0);
+			}
+		};
+		addMouseListener(navigation);
+		addMouseMotionListener(navigation);
+		addMouseWheelListener(navigation);
+		deltas = new DeltaRing(DELTA_CAPACITY);
+		renderLoop = new RenderLoop(deltas, new RenderLoop.Renderer() {
+			@Override
+			public void accept(long delta) {
+				applyDelta(delta);
+			}
+			@Override
+			public void render(boolean entire) {
+				renderFrame(entire);
+			}
+		}, SimulationConfig.fromSystemProperties().frameRate);
+		renderLoop.start();
+		TableMetrics.getSingleInstance().setRenderLoop(renderLoop);
 	}
 
 	private void makeBImg() {
 		//instantiate buffered image as background
-		bImg = new BufferedImage(W_WIDTH, W_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		bImg = createImage(W_WIDTH, W_HEIGHT, Transparency.OPAQUE);
 		Graphics2D g2 = bImg.createGraphics();
 		//paint background
 		g2.setColor(new Color(0, 0, 0));
@@ -107,6 +206,77 @@ public class ViewPhil extends JPanel implements PhilNumberSetListener, ModelList
 		g2.dispose();
 	}
 	
+	private void makeLegendImg() {
+		legendImg = createImage(W_WIDTH, W_HEIGHT - LEGEND_Y, Transparency.OPAQUE);
+		Graphics2D g2 = legendImg.createGraphics();
+		g2.setColor(Color.BLACK);
+		g2.fillRect(0, 0, W_WIDTH, W_HEIGHT - LEGEND_Y);
+		g2.translate(TRANSLATE_COORDINATES_X, TRANSLATE_COORDINATES_Y - LEGEND_Y);
+		g2.setColor(Color.WHITE);
+		g2.setFont(LEGEND_FONT); 
+		g2.drawString("Waiting", -240, 310);
+		g2.drawString("Eating", -130, 310);
+		g2.drawString("Philosophizing", -30, 310);
+		g2.setColor(STATE_COLORS[StatePhil.WAITING.ordinal()]);
+		g2.fillRect(-270, 297, 16, 16);
+		g2.setColor(STATE_COLORS[StatePhil.EATING.ordinal()]);
+		g2.fillRect(-160, 297, 16, 16);
+		g2.setColor(STATE_COLORS[StatePhil.PHILOSOPHIZING.ordinal()]);
+		g2.fillRect(-60, 297, 16, 16);
+		g2.dispose();
+	}
+	
+	private void makeCircleSprites() {
+		circleSprites = new BufferedImage[STATE_COLORS.length];
+		for (int i = 0; i < circleSprites.length; i++) {
+			circleSprites[i] = createImage(CIRCLE_DIAMETER, CIRCLE_DIAMETER, Transparency.TRANSLUCENT);
+			Graphics2D g2 = circleSprites[i].createGraphics();
+			g2.setColor(STATE_COLORS[i]);
+			g2.fillOval(0, 0, CIRCLE_DIAMETER, CIRCLE_DIAMETER);
+			g2.dispose();
+		}
+	}
+	
+	/**
+	 * one sprite per area and stick position: the stick of the position white, the other two black (they erase a previous position).
+	 */
+	private void makeStickSprites() {
+		stickBoxes = new Rectangle[ nrOfPhilosophers ];
+		stickSprites = new BufferedImage[ nrOfPhilosophers * 3 ];
+		for (int i = 0; i < nrOfPhilosophers; i++) {
+			Rectangle box = new Rectangle(scs[i * 3].x1, scs[i * 3].y1, 0, 0);
+			for (int j = i * 3; j < i * 3 + 3; j++) {
+				box.add(scs[j].x1, scs[j].y1);
+				box.add(scs[j].x2, scs[j].y2);
+			}
+			box.grow(3, 3);
+			stickBoxes[i] = box;
+			for (int position = 0; position < 3; position++) {
+				BufferedImage sprite = createImage(box.width, box.height, Transparency.TRANSLUCENT);
+				Graphics2D g2 = sprite.createGraphics();
+				g2.translate(-box.x, -box.y);
+				g2.setStroke(STICK_STROKE);
+				for (int j = 0; j < 3; j++) {
+					StickCoordinates sc = scs[i * 3 + j];
+					g2.setColor(j == position ? Color.WHITE : Color.BLACK);
+					g2.drawLine(sc.x1, sc.y1, sc.x2, sc.y2);
+				}
+				g2.dispose();
+				stickSprites[i * 3 + position] = sprite;
+			}
+		}
+	}
+	
+	/**
+	 * @return image in the format of the screen, so blitting it needs no conversion. an opaque image is copied without blending
+	 */
+	private static BufferedImage createImage(int width, int height, int transparency) {
+		if (GraphicsEnvironment.isHeadless())
+			return new BufferedImage(width, height, transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+				.createCompatibleImage(width, height, transparency);
+	}
+	
 	public static ViewPhil getSingleInstance() {
 		if (instance == null)
 			instance = new ViewPhil();
@@ -121,6 +291,26 @@ public class ViewPhil extends JPanel implements PhilNumberSetListener, ModelList
 		return new Dimension(W_WIDTH, W_HEIGHT);
 	};
 	
+	public DeltaRing getDeltaRing() {
+		return deltas;
+	}
+	
+	public DetailMode getDetailMode() {
+		return detail;
+	}
+	
+	public RenderLoop getRenderLoop() {
+		return renderLoop;
+	}
+	
+	/**
+	 * @param philNr
+	 * @return bounds of the circle of the philosopher and of the sticks of its area in unzoomed panel coordinates
+	 */
+	public Rectangle getSeatBounds(int philNr) {
+		return new Rectangle(seatBounds[philNr]);
+	}
+	
 	
 //	------------------------ PAINT COMPONENT ----------------------------------
 		
@@ -129,133 +319,125 @@ public class ViewPhil extends JPanel implements PhilNumberSetListener, ModelList
 		Graphics2D g2 = ( Graphics2D ) g;
 		
 		//paint whole window
-		if (!toUpdate) {
-			paintPanelEntire(g2);	
-		}
-		//paint update
-		else {
-			overpaintPanelPart(g2);
-		}
+		paintPanelEntire(g2);	
 		
 		//reset flags
-		philEvt = null;
-		sticksEvt = null;
-		toUpdate = false;
 		init = false;
 	}
 
 	private void paintPanelEntire(Graphics2D g2) {
-		//paint background
 		super.paintComponent(g2);
+		StateStore store = ModelPhil.getSingleInstance().getStateStore();
+		//initialization: all philosophers waiting, all sticks in the middle
+		boolean initial = init || store == null || store.size() != nrOfPhilosophers;
+		
+		if (detail == DetailMode.SEATS) {
+			Graphics2D world = (Graphics2D) g2.create();
+			world.translate(panX, panY);
+			world.scale(zoom, zoom);
+			paintSeats(world, initial);
+			world.dispose();
+		}
+		else {
+			raster.paint(g2, initial ? null : store);
+		}
+		g2.drawImage(legendImg, 0, LEGEND_Y, null);
+	}
+	
+	/**
+	 * @param g2 in world coordinates (the unzoomed panel)
+	 * @param initial all philosophers waiting, all sticks in the middle. otherwise the snapshot of the last frame is painted
+	 */
+	private void paintSeats(Graphics2D g2, boolean initial) {
+		Rectangle clip = g2.getClipBounds();
+		//paint background (table)
 		if (bImg != null) {
 			g2.drawImage(bImg, 0, 0, this);
 		}
 		//set center
 		g2.translate(TRANSLATE_COORDINATES_X, TRANSLATE_COORDINATES_Y);
 		
-		//case 1: initialization
-		if (init) {
-			//paint philosophers
-			g2.setColor(COLOR_MAP.get(StatePhil.WAITING));
-			for (CircleCoordinates ccs : ccs) {
-				g2.fillOval(ccs.x, ccs.y, CIRCLE_DIAMETER, CIRCLE_DIAMETER);
-			}
-			//paint sticks
-			g2.setColor(Color.WHITE);
-			StickCoordinates sc;
-			for (int i = 1; i < scs.length; i += 3) {
-				sc = scs[i];
-				g2.setStroke(new BasicStroke(3.0f));
-				g2.drawLine(sc.x1, sc.y1, sc.x2, sc.y2);
-			}
-		}
-		//case 1: general repainting
-		else {
-			//paint philosophers
-			CircleCoordinates cc;
-			for (int i = 0; i < ccs.length; i++) {
-				cc = ccs[i];
-				g2.setColor(COLOR_MAP.get(ccState[i]));
-				g2.fillOval(cc.x, cc.y, CIRCLE_DIAMETER, CIRCLE_DIAMETER);
-			}
-			//paint sticks
-			StickCoordinates sc;
-			for (int i = 0; i < scSet.length; i++) {
-				sc = scs[i];
-				g2.setStroke(new BasicStroke(3.0f));
-				if (scSet[i])
-					g2.setColor(Color.WHITE);
-				else
-					g2.setColor(Color.BLACK);
-				g2.drawLine(sc.x1, sc.y1, sc.x2, sc.y2);
-			}
+		//blit the sprites of the philosophers and the sticks of their areas
+		CircleCoordinates cc;
+		Rectangle box;
+		for (int i = 0; i < ccs.length; i++) {
+			if (clip != null && !clip.intersects(seatBounds[i]))
+				continue;
+			cc = ccs[i];
+			g2.drawImage(circleSprites[initial ? StatePhil.WAITING.ordinal() : frameStates[i]], cc.x, cc.y, null);
+			box = stickBoxes[i];
+			g2.drawImage(stickSprites[i * 3 + (initial ? StateStore.MIDDLE : frameSticks[i])], box.x, box.y, null);
 		}
 		
 		//draw letters
 		g2.setColor(Color.BLACK);
-		for (LetterCoordinates lc : lcs) {
-			g2.drawString(lc.letter, lc.x, lc.y);
+		for (int i = 0; i < lcs.length; i++) {
+			if (clip != null && !clip.intersects(seatBounds[i]))
+				continue;
+			g2.drawString(lcs[i].letter, lcs[i].x, lcs[i].y);
 		}
-		//write bottom text
-		g2.setColor(Color.WHITE);
-		Font f = new Font ("Arial", Font.PLAIN, 16);
-		g2.setFont(f); 
-		g2.drawString("Waiting", -240, 310);
-		g2.drawString("Eating", -130, 310);
-		g2.drawString("Philosophizing", -30, 310);
-		g2.setColor(COLOR_MAP.get(StatePhil.WAITING));
-		g2.fillRect(-270, 297, 16, 16);
-		g2.setColor(COLOR_MAP.get(StatePhil.EATING));
-		g2.fillRect(-160, 297, 16, 16);
-		g2.setColor(COLOR_MAP.get(StatePhil.PHILOSOPHIZING));
-		g2.fillRect(-60, 297, 16, 16);
 	}
 	
 	
-	private void overpaintPanelPart(Graphics2D g2) {
-		//set center
-		g2.translate(TRANSLATE_COORDINATES_X, TRANSLATE_COORDINATES_Y);
-		
-		//case 1: phil state changed -> repaint circle (first black, the with new color)
-		if (philEvt != null) {
-			int philNr = philEvt.philNr;
-			CircleCoordinates cc = ccs[philNr];
-			Color col = COLOR_MAP.get(philEvt.state);
-			//paint circle
-			g2.setColor(Color.BLACK);
-			g2.fillOval(cc.x, cc.y, CIRCLE_DIAMETER + 2, CIRCLE_DIAMETER + 2);
-			g2.setColor(col);
-			g2.fillOval(cc.x, cc.y, CIRCLE_DIAMETER, CIRCLE_DIAMETER);
-			//draw letter
-			LetterCoordinates lc = lcs[philNr];
-			g2.setColor(Color.BLACK);
-			g2.drawString(lc.letter, lc.x, lc.y);
-			//set state
-			ccState[philNr] = philEvt.state;
+//	------------------------ PAINT INVOKING METHODS ------------------------
+	
+	public void paintInitPanel() {
+		//discard deltas of a previous simulation
+		renderLoop.discard();
+		resetSnapshot();
+		damage = null;
+		damagedEntirely = false;
+		init = true;
+		repaint();
+	}
+	
+	
+	/**
+	 * invoked by the render loop after it has drained the deltas of the frame: take the snapshot and repaint the damaged bounds once.
+	 */
+	private void renderFrame(boolean entire) {
+		if (entire)
+			damagedEntirely = true;
+		takeSnapshot();
+		if (damagedEntirely) {
+			repaint();
+			damagedEntirely = false;
+			damage = null;
 		}
-		
-		//case 2: stick position changed -> paint new stick position white, old stick position black
-		else if (sticksEvt != null) {
-			int firstNr = sticksEvt.firstNr;
-			int secondNr = sticksEvt.secondNr;
-			StickCoordinates cc1 = scs[firstNr];
-			StickCoordinates cc2 = scs[secondNr];
-			//paint
-			g2.setStroke(new BasicStroke(3.0f));
-			g2.setColor(Color.WHITE);
-			g2.drawLine(cc1.x1, cc1.y1, cc1.x2, cc1.y2);
-			g2.setColor(Color.BLACK);
-			g2.drawLine(cc2.x1, cc2.y1, cc2.x2, cc2.y2);
-			scSet[firstNr] = true;
-			scSet[secondNr] = false;
+		else if (damage != null) {
+			//world to screen coordinates, rounded outwards
+			int x0 = (int) Math.floor(damage.x * zoom + panX);
+			int y0 = (int) Math.floor(damage.y * zoom + panY);
+			int x1 = (int) Math.ceil((damage.x + damage.width) * zoom + panX);
+			int y1 = (int) Math.ceil((damage.y + damage.height) * zoom + panY);
+			repaint(x0, y0, x1 - x0, y1 - y0);
+			damage = null;
 		}
 	}
 	
 	
-//	------------------------ PAINT INVOKING METHODS ------------------------
+//	--------------------------- ZOOM & PAN ------------------------------- 
 	
-	public void paintInitPanel() {
-		init = true;
+	/**
+	 * zoom by the factor and keep the world point under the mouse in place.
+	 */
+	private void zoomAt(int x, int y, double factor) {
+		double newZoom = Math.max(1.0, Math.min(MAX_ZOOM, zoom * factor));
+		double scale = newZoom / zoom;
+		setView(newZoom, x - (x - panX) * scale, y - (y - panY) * scale);
+	}
+	
+	/**
+	 * @param zoom at least 1
+	 * @param panX offset of the world origin on the screen
+	 * @param panY
+	 */
+	public void setView(double zoom, double panX, double panY) {
+		this.zoom = zoom;
+		this.panX = panX;
+		this.panY = panY;
+		if (detail != DetailMode.SEATS)
+			raster.layout(detail, nrOfPhilosophers, zoom, panX, panY);
 		repaint();
 	}
 	
@@ -263,7 +445,10 @@ public class ViewPhil extends JPanel implements PhilNumberSetListener, ModelList
 	@Override
 	public void nrOfPhilosophersSet( PhilNumberSetEvent e ) {
 		nrOfPhilosophers = e.nrOfPhilosophers;
+		detail = nrOfPhilosophers <= SEATS_LIMIT ? DetailMode.SEATS : nrOfPhilosophers <= RING_LIMIT ? DetailMode.RING : DetailMode.STRIP;
 		calculateCoordinates();
+		if (detail != DetailMode.SEATS)
+			raster.layout(detail, nrOfPhilosophers, zoom, panX, panY);
 		setLetters();
 		paintInitPanel();
 	}
@@ -279,31 +464,82 @@ public class ViewPhil extends JPanel implements PhilNumberSetListener, ModelList
 	
 	@Override
 	public void philStateChanged(PhilChangedEvent e) {
-		toUpdate = true;
-		if (SwingUtilities.isEventDispatchThread()) {
-			philEvt = e;
-			paintImmediately(0, 0, W_WIDTH, W_HEIGHT);
-		}
+		if (SwingUtilities.isEventDispatchThread())
+			markDamaged(e.philNr);
 	}
 
 	@Override
 	public void sticksChanged(SticksChangedEvent e) {
-		toUpdate = true;
-		if (SwingUtilities.isEventDispatchThread()) {
-			sticksEvt = e;
-			paintImmediately(0, 0, W_WIDTH, W_HEIGHT);
+		if (SwingUtilities.isEventDispatchThread())
+			markDamaged(e.firstNr / 3);
+	}
+	
+	
+//	--------------------------- DELTAS ------------------------------- 
+	
+	/**
+	 * the state itself is read from the store when painting, a delta only marks the bounds of its seat as damaged.
+	 */
+	private void applyDelta(long delta) {
+		int index = DeltaRing.index(delta);
+		markDamaged((delta & DeltaRing.TAG_MASK) == DeltaRing.STICK ? index / 3 : index);
+	}
+	
+	
+	private void takeSnapshot() {
+		StateStore store = ModelPhil.getSingleInstance().getStateStore();
+		if (store == null || store.size() != frameStates.length)
+			return;
+		for (int i = 0; i < frameStates.length; i++) {
+			frameStates[i] = store.getState(i);
+			frameSticks[i] = store.getStick(i);
+		}
+	}
+	
+	
+	private void resetSnapshot() {
+		frameStates = new int[ ccs.length ];
+		frameSticks = new int[ ccs.length ];
+		Arrays.fill(frameStates, StatePhil.WAITING.ordinal());
+		Arrays.fill(frameSticks, StateStore.MIDDLE);
+	}
+	
+	
+	private void markDamaged(int philNr) {
+		//the levels of the raster are always painted entirely
+		if (detail != DetailMode.SEATS) {
+			damagedEntirely = true;
+			return;
 		}
+		if (philNr < 0 || philNr >= seatBounds.length)
+			return;
+		if (damage == null)
+			damage = new Rectangle(seatBounds[philNr]);
+		else
+			damage.add(seatBounds[philNr]);
 	}
 
 	
 //	--------------------------- CALCULATIONS ------------------------------- 
 
+	/**
+	 * coordinates and sprites of the circles, sticks and letters. the levels of the raster have none.
+	 */
 	private void calculateCoordinates() 
 	{
+		if (detail != DetailMode.SEATS) {
+			ccs = new CircleCoordinates[0];
+			scs = new StickCoordinates[0];
+			lcs = new LetterCoordinates[0];
+			seatBounds = new Rectangle[0];
+			stickBoxes = new Rectangle[0];
+			stickSprites = new BufferedImage[0];
+			return;
+		}
+
 		//calculate circle positions and letter coordinates
 		ccs = new CircleCoordinates[ nrOfPhilosophers ];
 		lcs = new LetterCoordinates[ nrOfPhilosophers ];
-		ccState = new StatePhil[ nrOfPhilosophers ];
 		final double angle_const = 360.0 / (double) nrOfPhilosophers;
 		double angle = 90.0;
 		CircleCoordinates cc;
@@ -317,13 +553,11 @@ public class ViewPhil extends JPanel implements PhilNumberSetListener, ModelList
 			lc.y = cc.y + (CIRCLE_DIAMETER / 2) + 5;
 			ccs[i] = cc;
 			lcs[i] = lc;
-			ccState[i] = StatePhil.WAITING;
 			angle += angle_const;
 		}
 		
 		//calculate stick positions
 		scs = new StickCoordinates[ nrOfPhilosophers * 3 ];
-		scSet = new boolean[ nrOfPhilosophers * 3 ];
 		double angle2_const = 360.0 / (double) ( 4 * nrOfPhilosophers );
 		double angle2 = 90.0;
 		StickCoordinates sc;
@@ -337,38 +571,29 @@ public class ViewPhil extends JPanel implements PhilNumberSetListener, ModelList
 				sc.x2 = Math.negateExact((int)(Math.cos(Math.toRadians( angle2 )) * 230.0));
 				sc.y2 = Math.negateExact((int)(Math.sin(Math.toRadians( angle2 )) * 230.0));
 				scs[arix] = sc;
-				if (i % 2 == 0)
-					scSet[arix] = true;
-				else
-					scSet[arix] = false;
 				arix++;
 			}
 		}
+		
+		makeStickSprites();
+		
+		//calculate seat bounds in panel coordinates: circle and stick sprite
+		seatBounds = new Rectangle[ nrOfPhilosophers ];
+		for (int i = 0; i < nrOfPhilosophers; i++) {
+			Rectangle bounds = new Rectangle(ccs[i].x, ccs[i].y, CIRCLE_DIAMETER, CIRCLE_DIAMETER);
+			bounds.add(stickBoxes[i]);
+			bounds.translate(TRANSLATE_COORDINATES_X, TRANSLATE_COORDINATES_Y);
+			seatBounds[i] = bounds;
+		}
 	}
 	
 	
 	private void setLetters() {
 		if (mode == null)
 			return;
-		int startCodePoint = ModePhil.NORMALO == mode ? 65 : 64;
-		//first letter
-		switch (mode) {
-		case NORMALO:
-			lcs[0].letter = "A";
-			break;
-		case SOCIALIST:
-			lcs[0].letter = "M";
-			break;
-		case NIHILIST:
-			lcs[0].letter = "N";
-			break;
-		case OFF:
-			lcs[0].letter = "";
-			break;
-		}
-		//following letters
-		for (int i = 1; i < lcs.length; i++) {
-			lcs[i].letter = mode == ModePhil.OFF ? "" : String.valueOf((char)(startCodePoint + i));
+		//numbers after Z, like in the ranking
+		for (int i = 0; i < lcs.length; i++) {
+			lcs[i].letter = mode.getLetter(i);
 		}
 	}
 
@@ -0,0 +1,62 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * The supervisor acts as waiter and admits at most n-1 philosophers to the table.<br>
+ * Every philosopher takes the right stick first.
+ * 
+ * @author mabo
+ *
+ */
+public class WaiterStrategy implements DeadlockStrategy {
+	
+//	---------------------------- ATTRIBUTES ----------------------------------
+	
+	private Supervisor superVisor;
+	private StickArbiter sticks;
+	
+	
+//	---------------------------- CONSTRUCTOR ----------------------------------
+	
+	public WaiterStrategy(Supervisor sv, StickArbiter sticks) {
+		superVisor = sv;
+		this.sticks = sticks;
+	}
+	
+	
+//	---------------------------- METHODS ----------------------------------
+
+	@Override
+	public void sit(int philNr) throws InterruptedException {
+		superVisor.allowToSit(philNr);
+	}
+
+	@Override
+	public void takeSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException {
+		sticks.takeStick(philNr, rightAreaNr);
+		sticks.takeStick(philNr, leftAreaNr);
+	}
+
+	@Override
+	public void putSticks(int philNr, int leftAreaNr, int rightAreaNr) throws InterruptedException, InvocationTargetException {
+		sticks.putStick(philNr, rightAreaNr);
+		sticks.putStick(philNr, leftAreaNr);
+	}
+
+	@Override
+	public void leave(int philNr) {
+		superVisor.allowToLeave(philNr);
+	}
+
+}
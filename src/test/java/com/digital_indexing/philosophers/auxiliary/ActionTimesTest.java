@@ -0,0 +1,50 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.SplittableRandom;
+
+import com.digital_indexing.philosophers.enums.DistributionMode;
+
+import junit.framework.TestCase;
+
+/**
+ * All distributions of the action times have half the max. action time as mean.
+ */
+public class ActionTimesTest extends TestCase
+{
+    private static final int ACTION_TIME = 1000;
+    private static final int DRAWS = 100000;
+
+    public void testMeans()
+    {
+        for ( DistributionMode mode : DistributionMode.values() )
+        {
+            SplittableRandom random = new SplittableRandom( 7 );
+            long sum = 0;
+            for ( int i = 0; i < DRAWS; i++ )
+            {
+                long duration = ActionTimes.draw( mode, random, ACTION_TIME );
+                assertTrue( duration >= 0 );
+                sum += duration;
+            }
+            assertEquals( mode.toString(), ACTION_TIME / 2.0, sum / (double) DRAWS, ACTION_TIME * 0.02 );
+        }
+    }
+
+    public void testUniformKeepsTheDurationsOfASeed()
+    {
+        SplittableRandom expected = new SplittableRandom( 7 );
+        SplittableRandom random = new SplittableRandom( 7 );
+        for ( int i = 0; i < 100; i++ )
+            assertEquals( Math.round( expected.nextDouble() * ACTION_TIME ), ActionTimes.draw( DistributionMode.UNIFORM, random, ACTION_TIME ) );
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * The ring hands the deltas to its consumer in publish order, from many producers, and flags the ones it had to drop.
+ */
+public class DeltaRingTest extends TestCase
+{
+    public void testEncoding()
+    {
+        long delta = DeltaRing.encode( DeltaRing.STICK, 99999, 3 );
+        assertEquals( DeltaRing.STICK, delta & DeltaRing.TAG_MASK );
+        assertEquals( 99999, DeltaRing.index( delta ) );
+        assertEquals( 3, DeltaRing.value( delta ) );
+        assertFalse( DeltaRing.encode( DeltaRing.PHIL, 0, 0 ) == 0 );
+    }
+
+    public void testDrainInPublishOrder()
+    {
+        DeltaRing ring = new DeltaRing( 16 );
+        for ( int i = 0; i < 10; i++ )
+            assertTrue( ring.publish( DeltaRing.encode( DeltaRing.PHIL, i, 1 ) ) );
+        assertEquals( 10, ring.size() );
+        final List<Integer> drained = new ArrayList<Integer>();
+        assertEquals( 10, ring.drain( new DeltaRing.Consumer()
+        {
+            public void accept( long delta )
+            {
+                drained.add( DeltaRing.index( delta ) );
+            }
+        } ) );
+        assertEquals( "[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", drained.toString() );
+        assertEquals( 0, ring.size() );
+        assertFalse( ring.clearOverflow() );
+    }
+
+    public void testOverflowFlag()
+    {
+        DeltaRing ring = new DeltaRing( 8 );
+        for ( int i = 0; i < 8; i++ )
+            assertTrue( ring.publish( DeltaRing.encode( DeltaRing.PHIL, i, 1 ) ) );
+        assertFalse( ring.publish( DeltaRing.encode( DeltaRing.PHIL, 8, 1 ) ) );
+        assertEquals( 8, ring.size() );
+        assertTrue( ring.clearOverflow() );
+        assertFalse( ring.clearOverflow() );
+
+        //drained slots are free again, the dropped delta is not delivered
+        final long[] last = new long[1];
+        assertEquals( 8, ring.drain( new DeltaRing.Consumer()
+        {
+            public void accept( long delta )
+            {
+                last[0] = delta;
+            }
+        } ) );
+        assertEquals( 7, DeltaRing.index( last[0] ) );
+        assertTrue( ring.publish( DeltaRing.encode( DeltaRing.PHIL, 9, 1 ) ) );
+        assertFalse( ring.clearOverflow() );
+    }
+
+    public void testManyProducersOneConsumer() throws Exception
+    {
+        final DeltaRing ring = new DeltaRing( 64 );
+        final int producers = 4;
+        final int perProducer = 20000;
+        final CountDownLatch done = new CountDownLatch( producers );
+        for ( int p = 0; p < producers; p++ )
+        {
+            final int producer = p;
+            new Thread( new Runnable()
+            {
+                public void run()
+                {
+                    //full ring: publish again until the consumer freed a slot
+                    for ( int seq = 1; seq <= perProducer; seq++ )
+                        while ( !ring.publish( DeltaRing.encode( DeltaRing.PHIL, producer, seq ) ) )
+                            Thread.yield();
+                    done.countDown();
+                }
+            } ).start();
+        }
+
+        final int[] lastSeq = new int[producers];
+        final int[] received = { 0 };
+        DeltaRing.Consumer consumer = new DeltaRing.Consumer()
+        {
+            public void accept( long delta )
+            {
+                int producer = DeltaRing.index( delta );
+                int seq = DeltaRing.value( delta );
+                //each producer arrives in its own order, without gaps or duplicates
+                assertEquals( lastSeq[producer] + 1, seq );
+                lastSeq[producer] = seq;
+                received[0]++;
+            }
+        };
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 30 );
+        while ( received[0] < producers * perProducer )
+        {
+            ring.drain( consumer );
+            assertTrue( "deltas lost: " + received[0], System.nanoTime() < deadline );
+        }
+        assertTrue( done.await( 5, TimeUnit.SECONDS ) );
+        assertEquals( 0, ring.size() );
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * The heap polls events by time, events of the same time in the order they have been added.
+ */
+public class EventQueueTest extends TestCase
+{
+    public void testPollsInTimeOrder()
+    {
+        EventQueue queue = new EventQueue( 2 );
+        Random random = new Random( 42 );
+        for ( int i = 0; i < 10000; i++ )
+            queue.add( random.nextInt( 1000 ), i );
+        assertEquals( 10000, queue.size() );
+        long last = -1;
+        while ( !queue.isEmpty() )
+        {
+            long time = queue.poll();
+            assertTrue( time >= last );
+            last = time;
+        }
+        assertEquals( 0, queue.size() );
+    }
+
+    public void testSameTimeIsFifo()
+    {
+        EventQueue queue = new EventQueue( 4 );
+        queue.add( 5, 1 );
+        queue.add( 3, 2 );
+        queue.add( 5, 3 );
+        queue.add( 3, 4 );
+        queue.add( 5, 5 );
+        int[] expected = { 2, 4, 1, 3, 5 };
+        for ( int payload : expected )
+        {
+            assertEquals( payload, queue.peekPayload() );
+            queue.poll();
+        }
+        assertTrue( queue.isEmpty() );
+    }
+
+    public void testInterleavedAddAndPoll()
+    {
+        EventQueue queue = new EventQueue( 2 );
+        queue.add( 10, 1 );
+        queue.add( 20, 2 );
+        assertEquals( 10, queue.poll() );
+        queue.add( 15, 3 );
+        queue.add( 5, 4 );
+        assertEquals( 4, queue.peekPayload() );
+        assertEquals( 5, queue.poll() );
+        assertEquals( 15, queue.peekTime() );
+        assertEquals( 15, queue.poll() );
+        assertEquals( 20, queue.poll() );
+    }
+}
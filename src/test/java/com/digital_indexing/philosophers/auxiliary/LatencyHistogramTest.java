@@ -0,0 +1,75 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import junit.framework.TestCase;
+
+/**
+ * Percentiles of the log-bucketed histogram stay within the bucket precision.
+ */
+public class LatencyHistogramTest extends TestCase
+{
+    public void testBucketsAreContiguous()
+    {
+        for ( int bucket = 0; bucket < LatencyHistogram.NR_OF_BUCKETS - 1; bucket++ )
+        {
+            long upper = LatencyHistogram.upperBoundOf( bucket );
+            assertEquals( bucket, LatencyHistogram.bucketOf( upper ) );
+            assertEquals( bucket + 1, LatencyHistogram.bucketOf( upper + 1 ) );
+        }
+    }
+
+    public void testPercentilesOfUniformValues()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for ( int micros = 1; micros <= 10000; micros++ )
+            histogram.record( micros * 1000L );
+        assertEquals( 10000, histogram.getCount() );
+        assertEquals( 10000000L, histogram.getMaxNanos() );
+        assertWithin( 5000000L, histogram.getValueAtPercentile( 50 ), 0.125 );
+        assertWithin( 9900000L, histogram.getValueAtPercentile( 99 ), 0.125 );
+        assertEquals( 10000000L, histogram.getValueAtPercentile( 100 ) );
+    }
+
+    public void testMergeAddsCounts()
+    {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for ( int i = 0; i < 990; i++ )
+            fast.record( 100000L );
+        for ( int i = 0; i < 10; i++ )
+            slow.record( 500000000L );
+        LatencyHistogram table = new LatencyHistogram();
+        table.merge( fast );
+        table.merge( slow );
+        assertEquals( 1000, table.getCount() );
+        assertWithin( 100000L, table.getValueAtPercentile( 99 ), 0.125 );
+        assertWithin( 500000000L, table.getValueAtPercentile( 99.9 ), 0.125 );
+    }
+
+    public void testCountsPastIntRange()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record( 1000L );
+        histogram.record( 5000000L );
+        //doubling 32 times: each bucket holds 2^32 values
+        for ( int i = 0; i < 32; i++ )
+            histogram.merge( histogram );
+        assertEquals( 1L << 33, histogram.getCount() );
+        assertEquals( 1000L, histogram.getValueAtPercentile( 50 ) );
+        assertEquals( 5000000L, histogram.getValueAtPercentile( 99 ) );
+    }
+
+    private static void assertWithin( long expected, long actual, double fraction )
+    {
+        assertTrue( "expected ~" + expected + " but was " + actual, Math.abs( actual - expected ) <= expected * fraction );
+    }
+}
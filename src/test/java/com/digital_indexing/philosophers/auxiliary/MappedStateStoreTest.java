@@ -0,0 +1,63 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import junit.framework.TestCase;
+
+/**
+ * The mapped store keeps its values at the documented offsets, readable by another mapping of the file.
+ */
+public class MappedStateStoreTest extends TestCase
+{
+    public void testValuesVisibleInSeparateMapping() throws Exception
+    {
+        File path = File.createTempFile( "philosophers", ".state" );
+        path.deleteOnExit();
+        MappedStateStore store = new MappedStateStore( path, 5, 1, StateStore.MIDDLE );
+        try
+        {
+            store.setState( 3, 2 );
+            store.setStick( 4, StateStore.RIGHT );
+            store.addTime( 2, 1.5 );
+            assertEquals( 2.0, store.addTime( 2, 0.5 ) );
+            store.incrementMeals( 1 );
+            assertEquals( 1, store.getState( 0 ) );
+            assertEquals( 2, store.getState( 3 ) );
+            assertEquals( StateStore.RIGHT, store.getStick( 4 ) );
+            assertEquals( 1L, store.getMeals( 1 ) );
+
+            RandomAccessFile file = new RandomAccessFile( path, "r" );
+            try
+            {
+                MappedByteBuffer view = file.getChannel().map( FileChannel.MapMode.READ_ONLY, 0, file.length() );
+                assertEquals( MappedStateStore.MAGIC, view.getInt( 0 ) );
+                assertEquals( 5L, view.getLong( 8 ) );
+                assertEquals( 2, view.get( (int) view.getLong( 16 ) + 3 ) );
+                assertEquals( StateStore.RIGHT, view.get( (int) view.getLong( 24 ) + 4 ) );
+                assertEquals( 2.0, view.getDouble( (int) view.getLong( 32 ) + 2 * 8 ) );
+                assertEquals( 1L, view.getLong( (int) view.getLong( 40 ) + 8 ) );
+            }
+            finally
+            {
+                file.close();
+            }
+        }
+        finally
+        {
+            store.close();
+        }
+    }
+}
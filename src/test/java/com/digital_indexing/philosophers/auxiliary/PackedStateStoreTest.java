@@ -0,0 +1,64 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import junit.framework.TestCase;
+
+/**
+ * Seats sharing a word of the packed store keep their own state and stick position.
+ */
+public class PackedStateStoreTest extends TestCase
+{
+    public void testInitialValuesAndNeighbors()
+    {
+        PackedStateStore store = new PackedStateStore( 20, 1, PackedStateStore.MIDDLE );
+        assertEquals( 2, store.getNrOfWords() );
+        store.setState( 15, 2 );
+        store.setStick( 16, PackedStateStore.RIGHT );
+        assertEquals( 1, store.getState( 14 ) );
+        assertEquals( 2, store.getState( 15 ) );
+        assertEquals( 1, store.getState( 16 ) );
+        assertEquals( PackedStateStore.MIDDLE, store.getStick( 15 ) );
+        assertEquals( PackedStateStore.RIGHT, store.getStick( 16 ) );
+        assertEquals( 2, PackedStateStore.stateOf( store.getWord( 0 ), 15 ) );
+        assertEquals( PackedStateStore.RIGHT, PackedStateStore.stickOf( store.getWord( 1 ), 0 ) );
+    }
+
+    public void testConcurrentWritersOfOneWord() throws Exception
+    {
+        final PackedStateStore store = new PackedStateStore( 16, 0, PackedStateStore.LEFT );
+        Thread[] writers = new Thread[4];
+        for ( int w = 0; w < writers.length; w++ )
+        {
+            final int seat = w;
+            writers[w] = new Thread( new Runnable()
+            {
+                public void run()
+                {
+                    for ( int i = 0; i < 100000; i++ )
+                    {
+                        store.setState( seat, i % 3 );
+                        store.setStick( seat, ( i + 1 ) % 3 );
+                    }
+                }
+            } );
+            writers[w].start();
+        }
+        for ( Thread writer : writers )
+            writer.join();
+        for ( int seat = 0; seat < writers.length; seat++ )
+        {
+            assertEquals( 99999 % 3, store.getState( seat ) );
+            assertEquals( 100000 % 3, store.getStick( seat ) );
+        }
+        assertEquals( 0, store.getState( 4 ) );
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+
+import junit.framework.TestCase;
+
+/**
+ * The ranking index agrees with a full sort after random time changes.
+ */
+public class RankingIndexTest extends TestCase
+{
+    public void testInitialOrderByPhilNr()
+    {
+        RankingIndex index = new RankingIndex( 5 );
+        int[] top = new int[5];
+        assertEquals( 5, index.topK( 5, top ) );
+        assertEquals( "[0, 1, 2, 3, 4]", Arrays.toString( top ) );
+        assertEquals( 3, index.rankOf( 3 ) );
+    }
+
+    public void testMatchesSortAfterRandomChanges()
+    {
+        final int n = 200;
+        RankingIndex index = new RankingIndex( n );
+        final double[] times = new double[n];
+        SplittableRandom random = new SplittableRandom( 42 );
+        for ( int step = 0; step < 5000; step++ )
+        {
+            int philNr = random.nextInt( n );
+            // few distinct deltas, so equal times occur
+            double delta = random.nextInt( 4 ) * 1000.0;
+            times[philNr] += delta / 1000.0;
+            assertEquals( times[philNr], index.changeTimeValue( philNr, delta ) );
+        }
+        Integer[] expected = new Integer[n];
+        for ( int i = 0; i < n; i++ )
+            expected[i] = i;
+        Arrays.sort( expected, new Comparator<Integer>()
+        {
+            public int compare( Integer a, Integer b )
+            {
+                int byTime = Double.compare( times[b], times[a] );
+                return byTime != 0 ? byTime : a - b;
+            }
+        } );
+        int[] top = new int[10];
+        assertEquals( 10, index.topK( 10, top ) );
+        for ( int rank = 0; rank < n; rank++ )
+        {
+            assertEquals( expected[rank].intValue(), index.philAt( rank ) );
+            assertEquals( rank, index.rankOf( expected[rank] ) );
+            if ( rank < top.length )
+                assertEquals( expected[rank].intValue(), top[rank] );
+        }
+    }
+}
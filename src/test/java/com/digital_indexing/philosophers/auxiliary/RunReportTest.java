@@ -0,0 +1,51 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import com.digital_indexing.philosophers.enums.ReportMode;
+
+import junit.framework.TestCase;
+
+/**
+ * The report keeps the order of its entries and prints numbers, strings and arrays as json or text.
+ */
+public class RunReportTest extends TestCase
+{
+    public void testJson()
+    {
+        RunReport report = new RunReport();
+        report.put( "config", "phils=\"3\"" ).put( "meals", 12L ).put( "meals_per_sec", 1.5 )
+            .put( "cpu_seconds", Double.NaN ).put( "meals_per_seat", new long[] { 4, 5, 3 } );
+        assertEquals( "{\"config\":\"phils=\\\"3\\\"\",\"meals\":12,\"meals_per_sec\":1.500,"
+            + "\"cpu_seconds\":null,\"meals_per_seat\":[4,5,3]}", report.toJson() );
+    }
+
+    public void testText()
+    {
+        RunReport report = new RunReport();
+        report.put( "meals", 12L ).put( "meals_per_seat", new long[] { 4, 5, 3 } );
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        report.print( new PrintStream( bytes, true ), ReportMode.TEXT );
+        String nl = System.getProperty( "line.separator" );
+        assertEquals( "meals: 12" + nl + "meals_per_seat: 4 5 3" + nl, bytes.toString() );
+    }
+
+    public void testNestedReport()
+    {
+        RunReport config = new RunReport().put( "phils", 3 ).put( "engine", "des" );
+        RunReport report = new RunReport().put( "config", config ).put( "meals", 2L );
+        assertEquals( "{\"config\":{\"phils\":3,\"engine\":\"des\"},\"meals\":2}", report.toJson() );
+        assertEquals( "config=phils=3 engine=des meals=2", report.toString() );
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import java.util.concurrent.CountDownLatch;
+
+import com.digital_indexing.philosophers.enums.LatencyKind;
+
+import junit.framework.TestCase;
+
+/**
+ * Striped latencies count every record once and keep the memory per seat small.
+ */
+public class SeatLatenciesTest extends TestCase
+{
+    private static final int MAX_BYTES_PER_SEAT = 32;
+
+    public void testMemoryPerSeatIsBounded()
+    {
+        int seats = 2000000;
+        long before = usedMemory();
+        SeatLatencies latencies = new SeatLatencies( seats, 8 );
+        long used = usedMemory() - before;
+        assertEquals( seats, latencies.size() );
+        assertTrue( "bytes per seat: " + used / seats, used < (long) seats * MAX_BYTES_PER_SEAT );
+    }
+
+    public void testConcurrentRecordsAreMerged() throws Exception
+    {
+        final int threads = 4;
+        final int records = 10000;
+        final SeatLatencies latencies = new SeatLatencies( 100, threads );
+        final CountDownLatch start = new CountDownLatch( 1 );
+        Thread[] writers = new Thread[threads];
+        for ( int t = 0; t < threads; t++ )
+        {
+            final int seat = t;
+            writers[t] = new Thread( new Runnable() {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        return;
+                    }
+                    //all seats of the same stripe
+                    for ( int i = 0; i < records; i++ )
+                        latencies.record( LatencyKind.WAIT, seat * latencies.getNrOfStripes() % 100, ( i + 1 ) * 1000L );
+                }
+            } );
+            writers[t].start();
+        }
+        start.countDown();
+        for ( Thread writer : writers )
+            writer.join();
+
+        LatencyHistogram table = latencies.getTable( LatencyKind.WAIT );
+        assertEquals( threads * records, table.getCount() );
+        assertEquals( records * 1000L, table.getMaxNanos() );
+        assertEquals( records * 1000L, latencies.getMaxWaitNanos( 0 ) );
+        assertEquals( 0, latencies.getTable( LatencyKind.EATING ).getCount() );
+    }
+
+    public void testClearAndResize()
+    {
+        SeatLatencies latencies = new SeatLatencies( 10, 2 );
+        latencies.record( LatencyKind.FORKS, 3, 5000000L );
+        latencies.record( LatencyKind.WAIT, 3, 5000000L );
+        latencies.clear();
+        assertEquals( 0, latencies.getTable( LatencyKind.FORKS ).getCount() );
+        assertEquals( 0, latencies.getMaxWaitNanos( 3 ) );
+
+        latencies.resize( 20 );
+        assertEquals( 20, latencies.size() );
+        latencies.record( LatencyKind.WAIT, 19, 1000000L );
+        assertEquals( 1000000L, latencies.getMaxWaitNanos( 19 ) );
+    }
+
+    public void testPercentilesPerSeat()
+    {
+        SeatLatencies latencies = new SeatLatencies( 10, 1 );
+        assertEquals( 0, latencies.getSeatWaitAtPercentile( 3, 99 ) );
+        for ( int i = 0; i < 99; i++ )
+            latencies.record( LatencyKind.WAIT, 3, 100000L );
+        latencies.record( LatencyKind.WAIT, 3, 10000000L );
+        //100 microseconds are in the bucket 64 - 127, 10 ms are capped by the max. wait of the seat
+        assertEquals( 127000L, latencies.getSeatWaitAtPercentile( 3, 50 ) );
+        assertEquals( 127000L, latencies.getSeatWaitAtPercentile( 3, 99 ) );
+        assertEquals( 10000000L, latencies.getSeatWaitAtPercentile( 3, 100 ) );
+        assertEquals( 0, latencies.getSeatWaitAtPercentile( 4, 99 ) );
+    }
+
+    public void testFullSeatBucketsAreHalved()
+    {
+        SeatLatencies latencies = new SeatLatencies( 1, 1 );
+        for ( int i = 0; i < 10000; i++ )
+            latencies.record( LatencyKind.WAIT, 0, i % 100 == 0 ? 2000000L : 30000L );
+        //one wait in a hundred is long: the short waits (bucket below 64 microseconds) keep their share after halving
+        assertEquals( 63000L, latencies.getSeatWaitAtPercentile( 0, 50 ) );
+        assertEquals( 63000L, latencies.getSeatWaitAtPercentile( 0, 95 ) );
+        assertEquals( 2000000L, latencies.getSeatWaitAtPercentile( 0, 100 ) );
+    }
+
+    private static long usedMemory()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for ( int i = 0; i < 3; i++ )
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.auxiliary;
+
+import junit.framework.TestCase;
+
+/**
+ * The system properties are checked like the command line.
+ */
+public class SimulationConfigTest extends TestCase
+{
+    @Override
+    protected void tearDown()
+    {
+        System.clearProperty( "philosophers.phils" );
+        System.clearProperty( "philosophers.duration" );
+        System.clearProperty( "philosophers.engine" );
+        System.clearProperty( "philosophers.strategy" );
+    }
+
+    public void testInvalidNumbersAreRejected()
+    {
+        System.setProperty( "philosophers.phils", "-5" );
+        assertInvalid( SimulationConfig.PHILS );
+        System.setProperty( "philosophers.phils", "7" );
+        System.setProperty( "philosophers.duration", "0" );
+        assertInvalid( SimulationConfig.DURATION );
+        System.clearProperty( "philosophers.duration" );
+        assertEquals( 7, SimulationConfig.fromSystemProperties().nrOfPhilosophers );
+    }
+
+    public void testCombinationIsValidated()
+    {
+        System.setProperty( "philosophers.engine", "des" );
+        System.setProperty( "philosophers.strategy", "ordered" );
+        assertInvalid( SimulationConfig.STRATEGY );
+        //the command line may still fix the combination
+        SimulationConfig config = SimulationConfig.parse( new String[] { "-strategy", "waiter" } );
+        assertEquals( 3, config.nrOfPhilosophers );
+    }
+
+    private static void assertInvalid( String key )
+    {
+        try
+        {
+            SimulationConfig.fromSystemProperties();
+            fail( key );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( key ) );
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.listeners;
+
+import java.util.ArrayList;
+import java.util.EventObject;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.digital_indexing.philosophers.enums.DeliveryMode;
+import com.digital_indexing.philosophers.enums.OverflowPolicy;
+import com.digital_indexing.philosophers.enums.StatePhil;
+
+import junit.framework.TestCase;
+
+/**
+ * Subscriptions of the event bus deliver on their own thread and apply their overflow policy.
+ */
+public class EventBusTest extends TestCase
+{
+    public void testCallerRunsInPublishingThread() throws Exception
+    {
+        EventBus bus = new EventBus();
+        final List<Thread> threads = new ArrayList<Thread>();
+        bus.subscribe( PhilChangedEvent.class, new EventSubscriber()
+        {
+            public void eventPublished( EventObject e )
+            {
+                threads.add( Thread.currentThread() );
+            }
+        }, DeliveryMode.CALLER, OverflowPolicy.BLOCK, 1 );
+        assertTrue( bus.hasSubscribers( PhilChangedEvent.class ) );
+        assertFalse( bus.hasSubscribers( TimeChangedEvent.class ) );
+        bus.publish( new PhilChangedEvent( this, StatePhil.EATING, 0 ) );
+        bus.publish( new TimeChangedEvent( this, 0, 0, 0, 1.0, 1 ) );
+        assertEquals( 1, threads.size() );
+        assertSame( Thread.currentThread(), threads.get( 0 ) );
+    }
+
+    public void testSlowSubscriberDropsOldest() throws Exception
+    {
+        EventBus bus = new EventBus();
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final CountDownLatch done = new CountDownLatch( 3 );
+        final List<Integer> received = new ArrayList<Integer>();
+        EventBus.Subscription s = bus.subscribe( PhilChangedEvent.class, new EventSubscriber()
+        {
+            public void eventPublished( EventObject e )
+            {
+                try
+                {
+                    release.await();
+                }
+                catch ( InterruptedException ex )
+                {
+                    return;
+                }
+                received.add( ( (PhilChangedEvent) e ).philNr );
+                done.countDown();
+            }
+        }, DeliveryMode.DEDICATED, OverflowPolicy.DROP_OLDEST, 2 );
+        bus.publish( new PhilChangedEvent( this, StatePhil.EATING, 0 ) );
+        // the consumer holds event 0, the queue keeps the two newest of the others
+        Thread.sleep( 50 );
+        for ( int i = 1; i <= 4; i++ )
+            bus.publish( new PhilChangedEvent( this, StatePhil.EATING, i ) );
+        assertEquals( 2, s.getDropped() );
+        release.countDown();
+        assertTrue( done.await( 5, TimeUnit.SECONDS ) );
+        assertEquals( "[0, 3, 4]", received.toString() );
+        s.cancel();
+    }
+
+    public void testCoalesceKeepsLatestPerKey() throws Exception
+    {
+        EventBus bus = new EventBus();
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final CountDownLatch done = new CountDownLatch( 3 );
+        final List<StatePhil> received = new ArrayList<StatePhil>();
+        EventBus.Subscription s = bus.subscribe( PhilChangedEvent.class, new EventSubscriber()
+        {
+            public void eventPublished( EventObject e )
+            {
+                try
+                {
+                    release.await();
+                }
+                catch ( InterruptedException ex )
+                {
+                    return;
+                }
+                received.add( ( (PhilChangedEvent) e ).state );
+                done.countDown();
+            }
+        }, DeliveryMode.DEDICATED, OverflowPolicy.COALESCE, 4 );
+        bus.publish( new PhilChangedEvent( this, StatePhil.WAITING, 1 ) );
+        Thread.sleep( 50 );
+        bus.publish( new PhilChangedEvent( this, StatePhil.WAITING, 0 ) );
+        bus.publish( new PhilChangedEvent( this, StatePhil.EATING, 0 ) );
+        bus.publish( new PhilChangedEvent( this, StatePhil.PHILOSOPHIZING, 0 ) );
+        bus.publish( new PhilChangedEvent( this, StatePhil.EATING, 1 ) );
+        assertEquals( 2, s.getCoalesced() );
+        release.countDown();
+        assertTrue( done.await( 5, TimeUnit.SECONDS ) );
+        assertEquals( "[WAITING, PHILOSOPHIZING, EATING]", received.toString() );
+        s.cancel();
+    }
+}
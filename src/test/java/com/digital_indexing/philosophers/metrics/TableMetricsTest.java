@@ -0,0 +1,48 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+/**
+ * The metrics are readable through the platform MBean server.
+ */
+public class TableMetricsTest extends TestCase
+{
+    public void testCountersVisibleAsMBeanAttributes() throws Exception
+    {
+        TableMetrics metrics = TableMetrics.getSingleInstance();
+        metrics.register();
+        metrics.reset();
+        assertEquals( 0, metrics.getMonitorContention().length );
+        metrics.countMonitorContention( 4 );
+        long meals = metrics.getMealsCompleted();
+        metrics.mealFinished();
+        metrics.mealFinished();
+        metrics.monitorContended( 2 );
+        metrics.monitorContended( 7 );
+        metrics.rankingUpdated( 3000 );
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName( TableMetrics.OBJECT_NAME );
+        assertEquals( meals + 2, server.getAttribute( name, "MealsCompleted" ) );
+        assertEquals( 1L, server.getAttribute( name, "MonitorContentionTotal" ) );
+        long[] contention = (long[]) server.getAttribute( name, "MonitorContention" );
+        assertEquals( 4, contention.length );
+        assertEquals( 1L, contention[2] );
+        assertTrue( (Double) server.getAttribute( name, "RankingUpdateMaxMicros" ) >= 3.0 );
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ * The seat budget of the admission controller is never exceeded.
+ */
+public class AdmissionControllerTest extends TestCase
+{
+    public void testBudgetSplitAcrossStripes() throws Exception
+    {
+        AdmissionController admission = new AdmissionController( 5, 3, false );
+        assertEquals( 3, admission.getNrOfStripes() );
+        int[] stripes = new int[5];
+        for ( int i = 0; i < stripes.length; i++ )
+            stripes[i] = admission.acquire( i );
+        assertEquals( 5, admission.getSeatedCount() );
+        for ( int stripe : stripes )
+            admission.release( stripe );
+        assertEquals( 0, admission.getSeatedCount() );
+        assertEquals( 5, admission.getAdmissions() );
+    }
+
+    public void testWaiterIsAdmittedFromOtherStripe() throws Exception
+    {
+        final AdmissionController admission = new AdmissionController( 2, 2, false );
+        admission.acquire( 0 );
+        int taken = admission.acquire( 0 );
+        final int[] admitted = { -1 };
+        Thread waiter = new Thread( new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    admitted[0] = admission.acquire( 0 );
+                }
+                catch ( InterruptedException e )
+                {
+                    // not expected
+                }
+            }
+        } );
+        waiter.start();
+        awaitQueueDepth( admission, 1 );
+        admission.release( taken );
+        waiter.join( 5000 );
+        assertEquals( taken, admitted[0] );
+        assertEquals( 2, admission.getSeatedCount() );
+        assertEquals( 1, admission.getMaxQueueDepth() );
+    }
+
+    public void testSeatsHandedOffToWaiters() throws Exception
+    {
+        final AdmissionController admission = new AdmissionController( 3, 3, false );
+        final int threads = 8;
+        final int rounds = 2000;
+        final AtomicInteger seated = new AtomicInteger();
+        final AtomicInteger maxSeated = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch( threads );
+        for ( int t = 0; t < threads; t++ )
+        {
+            final int philNr = t;
+            new Thread( new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        for ( int i = 0; i < rounds; i++ )
+                        {
+                            int stripe = admission.acquire( philNr );
+                            int now = seated.incrementAndGet();
+                            if ( now > maxSeated.get() )
+                                maxSeated.set( now );
+                            seated.decrementAndGet();
+                            admission.release( stripe );
+                        }
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        // not expected
+                    }
+                    done.countDown();
+                }
+            } ).start();
+        }
+        assertTrue( "waiters have not been woken", done.await( 30, TimeUnit.SECONDS ) );
+        assertTrue( maxSeated.get() <= 3 );
+        assertEquals( 0, admission.getSeatedCount() );
+        assertEquals( 0, admission.getQueueDepth() );
+        assertEquals( threads * rounds, admission.getAdmissions() );
+    }
+
+    public void testInterruptedWaiterGivesUp() throws Exception
+    {
+        final AdmissionController admission = new AdmissionController( 1, 1, false );
+        admission.acquire( 0 );
+        final CountDownLatch interrupted = new CountDownLatch( 1 );
+        Thread waiter = new Thread( new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    admission.acquire( 1 );
+                }
+                catch ( InterruptedException e )
+                {
+                    interrupted.countDown();
+                }
+            }
+        } );
+        waiter.start();
+        awaitQueueDepth( admission, 1 );
+        waiter.interrupt();
+        assertTrue( interrupted.await( 5, TimeUnit.SECONDS ) );
+        assertEquals( 1, admission.getSeatedCount() );
+    }
+
+    public void testFairModeDoesNotBarge() throws Exception
+    {
+        final AdmissionController admission = new AdmissionController( 1, 1, true );
+        final List<String> order = Collections.synchronizedList( new ArrayList<String>() );
+        int stripe = admission.acquire( 0 );
+        Thread waiter = new Thread( new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    int taken = admission.acquire( 1 );
+                    order.add( "queued" );
+                    admission.release( taken );
+                }
+                catch ( InterruptedException e )
+                {
+                    // not expected
+                }
+            }
+        } );
+        waiter.start();
+        awaitQueueDepth( admission, 1 );
+        //counted before it parks in the semaphore: wait until it is queued there
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 5 );
+        while ( waiter.getState() != Thread.State.WAITING )
+        {
+            assertTrue( "waiter not parked", System.nanoTime() < deadline );
+            Thread.sleep( 1 );
+        }
+        //the seat is free for a moment, a newcomer must not overtake the queued philosopher
+        admission.release( stripe );
+        int newcomer = admission.acquire( 2 );
+        order.add( "newcomer" );
+        admission.release( newcomer );
+        waiter.join( 5000 );
+        assertEquals( "[queued, newcomer]", order.toString() );
+    }
+
+    public void testResetMaximaAfterWarmup() throws Exception
+    {
+        AdmissionController admission = new AdmissionController( 1, 1, false );
+        admission.release( admission.acquire( 0 ) );
+        admission.resetMaxima();
+        assertEquals( 0, admission.getMaxAdmissionNanos() );
+        assertEquals( 0, admission.getMaxQueueDepth() );
+        //the sums keep counting, the measured window is their difference
+        assertEquals( 1, admission.getAdmissions() );
+    }
+
+    public void testFairModeUsesOneStripe()
+    {
+        assertEquals( 1, new AdmissionController( 11, 4, true ).getNrOfStripes() );
+    }
+
+    private static void awaitQueueDepth( AdmissionController admission, int depth ) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 5 );
+        while ( admission.getQueueDepth() != depth )
+        {
+            assertTrue( "queue depth " + depth + " not reached", System.nanoTime() < deadline );
+            Thread.sleep( 1 );
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import junit.framework.TestCase;
+
+/**
+ * Asymmetric: even seats take the right stick first, odd seats the left one. The table makes progress with both stick arbiters,
+ * also with an odd number of seats where the last and the first seat are both even.
+ */
+public class AsymmetricStrategyTest extends TestCase
+{
+    public void testNoDeadlockWithAtomicSticks() throws Exception
+    {
+        int n = 5;
+        StrategyProgress.prepareModel( n );
+        StrategyProgress.assertProgress( new AsymmetricStrategy( new AtomicStickArbiter( n ) ), n, 500, 20000 );
+    }
+
+    public void testNoDeadlockWithMonitorSticks() throws Exception
+    {
+        int n = 5;
+        StrategyProgress.prepareModel( n );
+        StrategyProgress.assertProgress( new AsymmetricStrategy( new MonitorStickArbiter( new Supervisor() ) ), n, 500, 20000 );
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import com.digital_indexing.philosophers.listeners.PhilNumberSetEvent;
+
+/**
+ * Two neighbors compete for the stick of one area.
+ */
+public class AtomicStickArbiterTest extends TestCase
+{
+    private static final int ROUNDS = 20000;
+
+    protected void setUp()
+    {
+        ModelPhil.getSingleInstance().setModelListener( null );
+        ModelPhil.getSingleInstance().nrOfPhilosophersSet( new PhilNumberSetEvent( this, 3 ) );
+    }
+
+    public void testStickIsExclusive() throws Exception
+    {
+        final AtomicStickArbiter arbiter = new AtomicStickArbiter( 3, 4 );
+        final AtomicInteger holders = new AtomicInteger();
+        final AtomicBoolean violated = new AtomicBoolean();
+        // philosopher 0 and 1 share area 0
+        Thread[] threads = new Thread[2];
+        for ( int t = 0; t < threads.length; t++ )
+        {
+            final int philNr = t;
+            threads[t] = new Thread( new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        for ( int i = 0; i < ROUNDS; i++ )
+                        {
+                            arbiter.takeStick( philNr, 0 );
+                            if ( holders.incrementAndGet() != 1 )
+                                violated.set( true );
+                            holders.decrementAndGet();
+                            arbiter.putStick( philNr, 0 );
+                        }
+                    }
+                    catch ( Exception e )
+                    {
+                        violated.set( true );
+                    }
+                }
+            } );
+            threads[t].start();
+        }
+        for ( Thread thread : threads )
+            thread.join( 30000 );
+        assertFalse( violated.get() );
+        assertEquals( AtomicStickArbiter.FREE, arbiter.getOwner( 0 ) );
+        assertTrue( ModelPhil.getSingleInstance().getStickValue( 1 ) );
+    }
+
+    public void testInterruptWhileParked() throws Exception
+    {
+        final AtomicStickArbiter arbiter = new AtomicStickArbiter( 3, 1 );
+        arbiter.takeStick( 0, 0 );
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        Thread waiter = new Thread( new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    arbiter.takeStick( 1, 0 );
+                }
+                catch ( InterruptedException e )
+                {
+                    interrupted.set( true );
+                }
+                catch ( Exception e )
+                {
+                    // not expected
+                }
+            }
+        } );
+        waiter.start();
+        Thread.sleep( 50 );
+        waiter.interrupt();
+        waiter.join( 5000 );
+        assertTrue( interrupted.get() );
+        assertEquals( 0, arbiter.getOwner( 0 ) );
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import com.digital_indexing.philosophers.auxiliary.RandomStreams;
+
+import junit.framework.TestCase;
+
+/**
+ * Back-off: the table makes progress and the back-off times are drawn per seat, reproducible by the seed.
+ */
+public class BackoffStrategyTest extends TestCase
+{
+    public void testNoDeadlockWithAtomicSticks() throws Exception
+    {
+        int n = 5;
+        StrategyProgress.prepareModel( n );
+        BackoffStrategy strategy = new BackoffStrategy( new AtomicStickArbiter( n ), 2, new RandomStreams( 1L ), n );
+        StrategyProgress.assertProgress( strategy, n, 200, 30000 );
+    }
+
+    public void testNoDeadlockWithMonitorSticks() throws Exception
+    {
+        int n = 5;
+        StrategyProgress.prepareModel( n );
+        BackoffStrategy strategy = new BackoffStrategy( new MonitorStickArbiter( new Supervisor() ), 2, new RandomStreams( 1L ), n );
+        StrategyProgress.assertProgress( strategy, n, 200, 30000 );
+    }
+
+    public void testSameSeedGivesSameBackoffs()
+    {
+        int n = 5;
+        BackoffStrategy first = new BackoffStrategy( new AtomicStickArbiter( n ), 100, new RandomStreams( 3L ), n );
+        BackoffStrategy second = new BackoffStrategy( new AtomicStickArbiter( n ), 100, new RandomStreams( 3L ), n );
+        //the seats draw in a different interleaving, the sequence of each seat stays the same
+        long[][] drawn = new long[n][50];
+        for ( int i = 0; i < n; i++ )
+            for ( int k = 0; k < 50; k++ )
+                drawn[i][k] = first.nextBackoff( i, 100 );
+        for ( int k = 0; k < 50; k++ )
+            for ( int i = n - 1; i >= 0; i-- )
+                assertEquals( drawn[i][k], second.nextBackoff( i, 100 ) );
+    }
+
+    public void testBackoffDoesNotShiftDurations()
+    {
+        RandomStreams streams = new RandomStreams( 3L );
+        BackoffStrategy strategy = new BackoffStrategy( new AtomicStickArbiter( 2 ), 100, streams, 2 );
+        long duration = new RandomStreams( 3L ).forSeat( 1 ).nextLong();
+        for ( int k = 0; k < 10; k++ )
+            strategy.nextBackoff( 1, 100 );
+        assertEquals( duration, streams.forSeat( 1 ).nextLong() );
+        assertFalse( streams.forSeat( 1 ).nextLong() == streams.forBackoff( 1 ).nextLong() );
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * Chandy-Misra: the table makes progress and only dirty sticks are handed over.
+ */
+public class ChandyMisraStrategyTest extends TestCase
+{
+    public void testNoDeadlock() throws Exception
+    {
+        int n = 5;
+        StrategyProgress.prepareModel( n );
+        StrategyProgress.assertProgress( new ChandyMisraStrategy( n ), n, 500, 20000 );
+    }
+
+    public void testOnlyDirtySticksAreHandedOver() throws Exception
+    {
+        int n = 3;
+        StrategyProgress.prepareModel( n );
+        final ChandyMisraStrategy strategy = new ChandyMisraStrategy( n );
+        //initially the dirty stick of area 0 is held by philosopher 0
+        assertEquals( 0, strategy.getHolder( 0 ) );
+        assertTrue( strategy.isDirty( 0 ) );
+
+        //philosopher 1 (left area 0, right area 1) requests it and gets it cleaned
+        strategy.takeSticks( 1, 0, 1 );
+        assertEquals( 1, strategy.getHolder( 0 ) );
+        assertFalse( strategy.isDirty( 0 ) );
+
+        //philosopher 0 (left area 2, right area 0) has to wait while the stick is clean and in use
+        final CountDownLatch served = new CountDownLatch( 1 );
+        Thread neighbor = new Thread( new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    strategy.takeSticks( 0, 2, 0 );
+                    served.countDown();
+                }
+                catch ( Exception e )
+                {
+                    // interrupted at the end of a failed test
+                }
+            }
+        } );
+        neighbor.setDaemon( true );
+        neighbor.start();
+        assertFalse( served.await( 200, TimeUnit.MILLISECONDS ) );
+        assertEquals( 1, strategy.getHolder( 0 ) );
+
+        //after eating the stick is dirty and handed over to the waiting neighbor
+        strategy.putSticks( 1, 0, 1 );
+        assertTrue( served.await( 5, TimeUnit.SECONDS ) );
+        assertEquals( 0, strategy.getHolder( 0 ) );
+        assertFalse( strategy.isDirty( 0 ) );
+        strategy.putSticks( 0, 2, 0 );
+        assertTrue( strategy.isDirty( 0 ) );
+    }
+}
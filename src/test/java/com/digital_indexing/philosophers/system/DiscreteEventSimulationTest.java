@@ -0,0 +1,100 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.util.SplittableRandom;
+
+import com.digital_indexing.philosophers.auxiliary.ActionTimes;
+import com.digital_indexing.philosophers.auxiliary.RandomStreams;
+import com.digital_indexing.philosophers.auxiliary.SimulationConfig;
+import com.digital_indexing.philosophers.enums.DistributionMode;
+
+import junit.framework.TestCase;
+
+/**
+ * The simulated table keeps the rules of the sticks and the waiter, makes progress and is reproducible by its seed.
+ */
+public class DiscreteEventSimulationTest extends TestCase
+{
+    public void testNeighborsNeverEatTogether()
+    {
+        int n = 7;
+        DiscreteEventSimulation des = new DiscreteEventSimulation( n, 100, 1L, DistributionMode.EXPONENTIAL );
+        long lastMeals = 0;
+        for ( long until = 10; until <= 60000; until += 10 )
+        {
+            des.runUntil( until );
+            for ( int i = 0; i < n; i++ )
+                assertFalse( "seat " + i + " at " + until, des.isEating( i ) && des.isEating( ( i + 1 ) % n ) );
+            assertTrue( des.getSeatedCount() <= n - 1 );
+            assertTrue( des.getTotalMeals() >= lastMeals );
+            lastMeals = des.getTotalMeals();
+        }
+        for ( int i = 0; i < n; i++ )
+            assertTrue( "meals of seat " + i, des.getMealCount( i ) > 0 );
+    }
+
+    public void testSameSeedIsReproducible()
+    {
+        DiscreteEventSimulation first = new DiscreteEventSimulation( 50, 200, 7L );
+        DiscreteEventSimulation second = new DiscreteEventSimulation( 50, 200, 7L );
+        first.runUntil( 100000 );
+        second.runUntil( 50000 );
+        second.runUntil( 100000 );
+        assertEquals( first.getProcessedEvents(), second.getProcessedEvents() );
+        for ( int i = 0; i < 50; i++ )
+            assertEquals( first.getMealCount( i ), second.getMealCount( i ) );
+
+        DiscreteEventSimulation other = new DiscreteEventSimulation( 50, 200, 8L );
+        other.runUntil( 100000 );
+        assertFalse( first.getProcessedEvents() == other.getProcessedEvents() && first.getTotalMeals() == other.getTotalMeals() );
+    }
+
+    public void testDurationsOfSeatsFollowRandomStreams()
+    {
+        int n = 9;
+        DiscreteEventSimulation des = new DiscreteEventSimulation( n, 150, 42L, DistributionMode.EXPONENTIAL );
+        des.runUntil( 30000 );
+        RandomStreams streams = new RandomStreams( 42L );
+        for ( int i = 0; i < n; i++ )
+        {
+            //each seat draws think, eat, think, eat, ... from its own stream, like a Philosopher does
+            SplittableRandom random = streams.forSeat( i );
+            long meals = des.getMealCount( i );
+            double finishedThinking = 0;
+            for ( long meal = 0; meal < meals; meal++ )
+            {
+                //the ranking keeps seconds
+                finishedThinking += ActionTimes.draw( DistributionMode.EXPONENTIAL, random, 150 ) / 1000.0;
+                ActionTimes.draw( DistributionMode.EXPONENTIAL, random, 150 );
+            }
+            double current = ActionTimes.draw( DistributionMode.EXPONENTIAL, random, 150 ) / 1000.0;
+            double time = des.getRanking().getTime( i );
+            assertTrue( "seat " + i + ": " + time, time == finishedThinking || time == finishedThinking + current );
+        }
+    }
+
+    public void testUnsupportedOptionsAreRejected()
+    {
+        try
+        {
+            SimulationConfig.parse( new String[] { "-headless", "-engine", "des", "-strategy", "chandy-misra" } );
+            fail();
+        }
+        catch ( IllegalArgumentException e )
+        {
+            assertTrue( e.getMessage().contains( "strategy" ) );
+        }
+        SimulationConfig config = SimulationConfig.parse( new String[] { "-headless", "-engine", "des" } );
+        assertNull( config.toReport().get( SimulationConfig.STICKS ) );
+        assertEquals( "waiter", config.toReport().get( SimulationConfig.STRATEGY ) );
+    }
+}
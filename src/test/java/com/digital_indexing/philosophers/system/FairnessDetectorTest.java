@@ -0,0 +1,115 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.util.ArrayList;
+import java.util.EventObject;
+import java.util.List;
+
+import com.digital_indexing.philosophers.enums.DeliveryMode;
+import com.digital_indexing.philosophers.enums.OverflowPolicy;
+import com.digital_indexing.philosophers.listeners.EventBus;
+import com.digital_indexing.philosophers.listeners.EventSubscriber;
+import com.digital_indexing.philosophers.listeners.FairnessEvent;
+import com.digital_indexing.philosophers.listeners.StarvationEvent;
+
+import junit.framework.TestCase;
+
+/**
+ * The detector reports starving neighbors once and the jain index of unfair windows.
+ */
+public class FairnessDetectorTest extends TestCase
+{
+    private static final long MS = 1000000L;
+
+    private EventBus bus;
+    private List<EventObject> events;
+
+    protected void setUp()
+    {
+        bus = new EventBus();
+        events = new ArrayList<EventObject>();
+        EventSubscriber collector = new EventSubscriber()
+        {
+            public void eventPublished( EventObject e )
+            {
+                events.add( e );
+            }
+        };
+        bus.subscribe( StarvationEvent.class, collector, DeliveryMode.CALLER, OverflowPolicy.BLOCK, 1 );
+        bus.subscribe( FairnessEvent.class, collector, DeliveryMode.CALLER, OverflowPolicy.BLOCK, 1 );
+    }
+
+    public void testStarvingNeighborsAreReportedOnce() throws Exception
+    {
+        FairnessDetector detector = new FairnessDetector( bus, 3, 1000 * MS, 0.8 );
+        long t0 = System.nanoTime();
+        detector.mealFinished( 0, t0 + 200 * MS );
+        assertEquals( 0, events.size() );
+        detector.mealFinished( 0, t0 + 210 * MS );
+        assertEquals( 2, events.size() );
+        StarvationEvent starving = (StarvationEvent) events.get( 0 );
+        assertEquals( 2, starving.philNr );
+        assertEquals( 0, starving.neighborNr );
+        detector.mealFinished( 0, t0 + 220 * MS );
+        assertEquals( 2, detector.getStarvations() );
+        //seat 1 eats and is not starving anymore, seat 2 still is
+        detector.mealFinished( 1, t0 + 230 * MS );
+        detector.mealFinished( 0, t0 + 240 * MS );
+        assertEquals( 2, detector.getStarvations() );
+        detector.mealFinished( 0, t0 + 600 * MS );
+        detector.mealFinished( 0, t0 + 610 * MS );
+        assertEquals( 3, detector.getStarvations() );
+    }
+
+    public void testUnfairWindowIsReported() throws Exception
+    {
+        FairnessDetector detector = new FairnessDetector( bus, 4, 1000 * MS, 0.8 );
+        long t0 = System.nanoTime();
+        for ( int i = 1; i <= 10; i++ )
+            detector.mealFinished( 0, t0 + i * 10 * MS );
+        detector.mealFinished( 1, t0 + 500 * MS );
+        events.clear();
+        detector.mealFinished( 0, t0 + 1500 * MS );
+        //11 meals, squares 10 * 10 + 1: 121 / (4 * 101)
+        assertEquals( 121.0 / 404, detector.getLastJainIndex(), 1e-9 );
+        assertEquals( detector.getLastJainIndex(), detector.getMinJainIndex(), 1e-9 );
+        FairnessEvent unfair = null;
+        for ( EventObject e : events )
+            if ( e instanceof FairnessEvent )
+                unfair = (FairnessEvent) e;
+        assertNotNull( unfair );
+        assertEquals( 0, unfair.window );
+        assertEquals( 11, unfair.meals );
+    }
+
+    public void testRestartDropsWarmupCounts() throws Exception
+    {
+        FairnessDetector detector = new FairnessDetector( bus, 2, 1000 * MS, 0.8 );
+        long t0 = System.nanoTime();
+        for ( int i = 1; i <= 10; i++ )
+            detector.mealFinished( 0, t0 + i * 30 * MS );
+        detector.mealFinished( 0, t0 + 1200 * MS );
+        assertTrue( detector.getStarvations() > 0 );
+        assertTrue( detector.getMinJainIndex() < 0.8 );
+
+        detector.restart();
+        assertEquals( 0, detector.getStarvations() );
+        assertEquals( 1.0, detector.getMinJainIndex(), 1e-9 );
+        //one fair window after the restart
+        long t1 = System.nanoTime();
+        detector.mealFinished( 0, t1 + 10 * MS );
+        detector.mealFinished( 1, t1 + 20 * MS );
+        detector.mealFinished( 0, t1 + 1100 * MS );
+        assertEquals( 1.0, detector.getLastJainIndex(), 1e-9 );
+        assertEquals( 1.0, detector.getMinJainIndex(), 1e-9 );
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.digital_indexing.philosophers.auxiliary.RankingSnapshot;
+import com.digital_indexing.philosophers.listeners.PhilNumberSetEvent;
+
+import junit.framework.TestCase;
+
+/**
+ * Snapshots of the ranking are consistent while the philosophers change it.
+ */
+public class RankingSnapshotTest extends TestCase
+{
+    private static final int WRITERS = 4;
+
+    public void testSnapshotsConsistentUnderWriters() throws Exception
+    {
+        final int n = 64;
+        final ModelPhil model = ModelPhil.getSingleInstance();
+        model.setTimeListener( null );
+        model.nrOfPhilosophersSet( new PhilNumberSetEvent( this, n ) );
+        final AtomicBoolean running = new AtomicBoolean( true );
+        Thread[] writers = new Thread[WRITERS];
+        for ( int w = 0; w < writers.length; w++ )
+        {
+            final int first = w;
+            writers[w] = new Thread( new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        // every writer adds 1ms per change, so each time is a multiple of 0.001
+                        for ( int i = first; running.get(); i += WRITERS )
+                            model.changePhilTime( i % n, 1.0 );
+                    }
+                    catch ( Exception e )
+                    {
+                        // not expected
+                    }
+                }
+            } );
+            writers[w].start();
+        }
+        long lastVersion = -1;
+        for ( int i = 0; i < 2000; i++ )
+        {
+            RankingSnapshot s = model.getRankingSnapshot();
+            assertTrue( s.getVersion() >= lastVersion );
+            lastVersion = s.getVersion();
+            double total = 0;
+            for ( int rank = 0; rank < n; rank++ )
+            {
+                int philNr = s.philAt( rank );
+                assertEquals( rank, s.rankOf( philNr ) );
+                total += s.getTime( philNr );
+                if ( rank > 0 )
+                    assertTrue( s.getTime( s.philAt( rank - 1 ) ) >= s.getTime( philNr ) );
+            }
+            // one change per version
+            assertEquals( s.getVersion(), Math.round( total * 1000 ) );
+        }
+        running.set( false );
+        for ( Thread writer : writers )
+            writer.join( 5000 );
+        RankingSnapshot last = model.getRankingSnapshot();
+        assertSame( last, model.getRankingSnapshot() );
+    }
+}
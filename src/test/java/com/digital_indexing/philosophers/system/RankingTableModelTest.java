@@ -0,0 +1,130 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
+import com.digital_indexing.philosophers.enums.ModePhil;
+import com.digital_indexing.philosophers.listeners.TimeChangedEvent;
+
+import junit.framework.TestCase;
+
+/**
+ * The ranking table moves philosophers between rows and reports only the rows in between.
+ */
+public class RankingTableModelTest extends TestCase
+{
+    private RankingTableModel model;
+    private List<TableModelEvent> events;
+
+    @Override
+    protected void setUp()
+    {
+        model = new RankingTableModel( ModePhil.NORMALO, 10000 );
+        events = new ArrayList<TableModelEvent>();
+        model.addTableModelListener( new TableModelListener() {
+            @Override
+            public void tableChanged( TableModelEvent e ) {
+                events.add( e );
+            }
+        } );
+    }
+
+    public void testMoveUpReportsRowsInBetween()
+    {
+        model.philTimeChanged( new TimeChangedEvent( this, 9000, 9000, 2, 1.5, 1 ) );
+        assertEquals( 9000, model.philAt( 2 ) );
+        assertEquals( 2, model.philAt( 3 ) );
+        assertEquals( 8999, model.philAt( 9000 ) );
+        assertEquals( 9001, model.philAt( 9001 ) );
+        assertEquals( "1.5000", model.getValueAt( 2, RankingTableModel.TIME ) );
+
+        assertEquals( 1, events.size() );
+        assertEquals( 2, events.get( 0 ).getFirstRow() );
+        assertEquals( 9000, events.get( 0 ).getLastRow() );
+        assertEquals( TableModelEvent.UPDATE, events.get( 0 ).getType() );
+    }
+
+    public void testMoveDownAndTimeOnly()
+    {
+        model.philTimeChanged( new TimeChangedEvent( this, 3, 3, 5, 0.5, 1 ) );
+        assertEquals( 4, model.philAt( 3 ) );
+        assertEquals( 5, model.philAt( 4 ) );
+        assertEquals( 3, model.philAt( 5 ) );
+
+        model.philTimeChanged( new TimeChangedEvent( this, 3, 5, 5, 0.75, 2 ) );
+        TableModelEvent e = events.get( 1 );
+        assertEquals( 5, e.getFirstRow() );
+        assertEquals( 5, e.getLastRow() );
+        assertEquals( RankingTableModel.TIME, e.getColumn() );
+        assertEquals( 2, model.getVersion() );
+    }
+
+    public void testOldVersionsIgnored()
+    {
+        model.philTimeChanged( new TimeChangedEvent( this, 1, 1, 0, 1.0, 1 ) );
+        model.philTimeChanged( new TimeChangedEvent( this, 2, 2, 0, 1.0, 1 ) );
+        assertEquals( 1, model.philAt( 0 ) );
+        assertEquals( 1, events.size() );
+    }
+
+    public void testOutOfOrderHeldBack()
+    {
+        //published after the ranking was released: version 2 overtakes version 1
+        model.philTimeChanged( new TimeChangedEvent( this, 2, 2, 0, 1.0, 2 ) );
+        assertEquals( 0, model.getVersion() );
+        assertEquals( 1, model.getNrOfHeld() );
+        assertTrue( events.isEmpty() );
+
+        model.philTimeChanged( new TimeChangedEvent( this, 1, 1, 0, 0.5, 1 ) );
+        assertEquals( 2, model.getVersion() );
+        assertEquals( 0, model.getNrOfHeld() );
+        assertEquals( 2, model.philAt( 0 ) );
+        assertEquals( 1, model.philAt( 1 ) );
+        //each event reported its own rows, no resynchronization of all rows
+        assertEquals( 2, events.size() );
+        assertEquals( 1, events.get( 0 ).getLastRow() );
+        assertEquals( 2, events.get( 1 ).getLastRow() );
+    }
+
+    public void testHeldNotExpiredEarly()
+    {
+        model.philTimeChanged( new TimeChangedEvent( this, 2, 2, 0, 1.0, 3 ) );
+        model.expireHeld( System.nanoTime() );
+        assertEquals( 1, model.getNrOfHeld() );
+        assertEquals( 0, model.getVersion() );
+    }
+
+    public void testNames()
+    {
+        assertEquals( ModePhil.NORMALO.getHead(), model.getName( 0 ) );
+        assertEquals( ModePhil.NORMALO.getOther() + " B", model.getName( 1 ) );
+        assertEquals( ModePhil.NORMALO.getOther() + " 1000", model.getName( 999 ) );
+    }
+
+    public void testLettersEndAtZ()
+    {
+        //the circles of the view show the same letters as the ranking
+        assertEquals( "A", ModePhil.NORMALO.getLetter( 0 ) );
+        assertEquals( "Z", ModePhil.NORMALO.getLetter( 25 ) );
+        assertEquals( "27", ModePhil.NORMALO.getLetter( 26 ) );
+        assertEquals( "M", ModePhil.SOCIALIST.getLetter( 0 ) );
+        assertEquals( "Z", ModePhil.SOCIALIST.getLetter( 26 ) );
+        assertEquals( "28", ModePhil.SOCIALIST.getLetter( 27 ) );
+        assertEquals( "32", ModePhil.NIHILIST.getLetter( 31 ) );
+        assertEquals( "", ModePhil.OFF.getLetter( 5 ) );
+        assertEquals( ModePhil.SOCIALIST.getOther() + " 28", new RankingTableModel( ModePhil.SOCIALIST, 32 ).getName( 27 ) );
+    }
+}
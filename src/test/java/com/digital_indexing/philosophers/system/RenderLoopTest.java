@@ -0,0 +1,97 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import com.digital_indexing.philosophers.auxiliary.DeltaRing;
+
+import junit.framework.TestCase;
+
+/**
+ * The render loop renders at most one frame per tick and counts coalesced, dropped and idle frames.
+ */
+public class RenderLoopTest extends TestCase
+{
+    private static final long MS = 1000000L;
+
+    private DeltaRing deltas;
+    private int accepted;
+    private int rendered;
+    private boolean entire;
+    private RenderLoop loop;
+
+    @Override
+    protected void setUp()
+    {
+        deltas = new DeltaRing( 8 );
+        loop = new RenderLoop( deltas, new RenderLoop.Renderer() {
+            @Override
+            public void accept( long delta ) {
+                accepted++;
+            }
+            @Override
+            public void render( boolean e ) {
+                rendered++;
+                entire = e;
+            }
+        }, 50 );
+    }
+
+    public void testDeltasCoalescedIntoOneFrame()
+    {
+        for ( int i = 0; i < 5; i++ )
+            deltas.publish( DeltaRing.encode( DeltaRing.PHIL, i, 1 ) );
+        loop.tick( 20 * MS );
+        assertEquals( 5, accepted );
+        assertEquals( 1, rendered );
+        assertFalse( entire );
+        assertEquals( 1, loop.getRenderedFrames() );
+        assertEquals( 4, loop.getCoalescedFrames() );
+
+        //nothing changed: no frame
+        loop.tick( 40 * MS );
+        assertEquals( 1, rendered );
+        assertEquals( 1, loop.getIdleTicks() );
+        assertEquals( 0, loop.getDroppedFrames() );
+    }
+
+    public void testOverflowRendersEntirely()
+    {
+        for ( int i = 0; i < 20; i++ )
+            deltas.publish( DeltaRing.encode( DeltaRing.STICK, i, 0 ) );
+        loop.tick( 20 * MS );
+        assertEquals( 1, rendered );
+        assertTrue( entire );
+        assertEquals( 1, loop.getOverflows() );
+    }
+
+    public void testLateTicksCountAsDropped()
+    {
+        loop.tick( 20 * MS );
+        //jitter below half a period is tolerated
+        loop.tick( 48 * MS );
+        assertEquals( 0, loop.getDroppedFrames() );
+        //three periods later: two frames missed
+        loop.tick( 108 * MS );
+        assertEquals( 2, loop.getDroppedFrames() );
+    }
+
+    public void testFrameRateBounds()
+    {
+        loop.setFrameRate( 30 );
+        assertEquals( 30, loop.getFrameRate() );
+        try {
+            loop.setFrameRate( 0 );
+            fail();
+        } catch ( IllegalArgumentException e ) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.digital_indexing.philosophers.listeners.PhilNumberSetEvent;
+
+import junit.framework.Assert;
+
+/**
+ * Runs a small table of contending threads through a deadlock strategy without sleeping.<br>
+ * Every philosopher has to finish its meals in time (no deadlock, no starvation of a seat) and two neighbors never eat at the same time.
+ */
+final class StrategyProgress
+{
+    private StrategyProgress()
+    {
+    }
+
+    /**
+     * set up the model with a table of n seats. call before the strategy is created.
+     */
+    static void prepareModel( int n )
+    {
+        ModelPhil model = ModelPhil.getSingleInstance();
+        model.setModelListener( null );
+        model.setTimeListener( null );
+        model.setDeltaRing( null );
+        model.nrOfPhilosophersSet( new PhilNumberSetEvent( StrategyProgress.class, n ) );
+    }
+
+    static void assertProgress( final DeadlockStrategy strategy, final int n, final int meals, long timeoutMillis ) throws InterruptedException
+    {
+        final AtomicIntegerArray eating = new AtomicIntegerArray( n );
+        final AtomicIntegerArray finished = new AtomicIntegerArray( n );
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        Thread[] philosophers = new Thread[n];
+        for ( int i = 0; i < n; i++ )
+        {
+            final int philNr = i;
+            final int leftAreaNr = philNr - 1 < 0 ? n - 1 : philNr - 1;
+            final int rightAreaNr = philNr;
+            philosophers[i] = new Thread( new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        for ( int meal = 0; meal < meals; meal++ )
+                        {
+                            strategy.sit( philNr );
+                            strategy.takeSticks( philNr, leftAreaNr, rightAreaNr );
+                            eating.set( philNr, 1 );
+                            if ( eating.get( leftAreaNr ) == 1 || eating.get( ( philNr + 1 ) % n ) == 1 )
+                                failure.compareAndSet( null, "neighbors of " + philNr + " eat at the same time" );
+                            Thread.yield();
+                            eating.set( philNr, 0 );
+                            strategy.putSticks( philNr, leftAreaNr, rightAreaNr );
+                            strategy.leave( philNr );
+                            finished.incrementAndGet( philNr );
+                        }
+                    }
+                    catch ( Exception e )
+                    {
+                        failure.compareAndSet( null, philNr + ": " + e );
+                    }
+                }
+            } );
+            philosophers[i].setDaemon( true );
+            philosophers[i].start();
+        }
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for ( Thread philosopher : philosophers )
+            philosopher.join( Math.max( 1, deadline - System.currentTimeMillis() ) );
+        for ( Thread philosopher : philosophers )
+            philosopher.interrupt();
+        Assert.assertNull( failure.get(), failure.get() );
+        for ( int i = 0; i < n; i++ )
+            Assert.assertEquals( "meals of philosopher " + i, meals, finished.get( i ) );
+    }
+}
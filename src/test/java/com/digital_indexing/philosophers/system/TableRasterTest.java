@@ -0,0 +1,104 @@
+/**
+ * "The Dining Club of Philosophers"
+ *
+ * Copyright (C) 2016 Matthias Boesinger (boesingermatthias@gmail.com).
+ *
+ * Licensed under GNU General Public License 3.0 or later.
+ * Some rights reserved. See COPYING, AUTHORS.
+ *
+ * @license GPL-3.0+ <http://spdx.org/licenses/GPL-3.0+>
+ */
+package com.digital_indexing.philosophers.system;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import com.digital_indexing.philosophers.auxiliary.PackedStateStore;
+import com.digital_indexing.philosophers.enums.DetailMode;
+import com.digital_indexing.philosophers.enums.StatePhil;
+
+import junit.framework.TestCase;
+
+/**
+ * The raster maps the pixels of the ring and of the strip to the right philosophers.
+ */
+public class TableRasterTest extends TestCase
+{
+    private static final int SIZE = 600;
+    private static final int CENTER = 300;
+    private static final Color[] COLORS = { Color.ORANGE, Color.RED, Color.GREEN };
+
+    public void testRingTopPixelIsFirstSeat()
+    {
+        int n = 1000;
+        PackedStateStore store = new PackedStateStore( n, StatePhil.WAITING.ordinal(), 0 );
+        store.setState( 0, StatePhil.EATING.ordinal() );
+        store.setState( n / 2, StatePhil.PHILOSOPHIZING.ordinal() );
+
+        BufferedImage screen = paint( DetailMode.RING, n, 1, 0, 0, store );
+        int middle = ( TableRaster.RING_INNER_RADIUS + TableRaster.RING_OUTER_RADIUS ) / 2;
+        assertEquals( Color.ORANGE.getRGB(), screen.getRGB( CENTER, CENTER - middle ) );
+        assertEquals( Color.GREEN.getRGB(), screen.getRGB( CENTER, CENTER + middle ) );
+        assertEquals( Color.RED.getRGB(), screen.getRGB( CENTER - middle, CENTER ) );
+        //inside the ring the background is left alone
+        assertEquals( Color.BLACK.getRGB(), screen.getRGB( CENTER, CENTER ) );
+    }
+
+    public void testStripShowsShares()
+    {
+        int n = 100000;
+        PackedStateStore store = new PackedStateStore( n, StatePhil.WAITING.ordinal(), 0 );
+        for ( int i = 0; i < n; i += 2 )
+            store.setState( i, StatePhil.EATING.ordinal() );
+
+        BufferedImage screen = paint( DetailMode.STRIP, n, 1, 0, 0, store );
+        int column = TableRaster.STRIP_LEFT + TableRaster.STRIP_WIDTH / 2;
+        int eating = 0, waiting = 0, philosophizing = 0;
+        for ( int y = TableRaster.STRIP_TOP; y < TableRaster.STRIP_TOP + TableRaster.STRIP_HEIGHT; y++ ) {
+            int rgb = screen.getRGB( column, y );
+            if ( rgb == Color.ORANGE.getRGB() )
+                eating++;
+            else if ( rgb == Color.RED.getRGB() )
+                waiting++;
+            else if ( rgb == Color.GREEN.getRGB() )
+                philosophizing++;
+        }
+        assertEquals( TableRaster.STRIP_HEIGHT, eating + waiting );
+        assertEquals( 0, philosophizing );
+        assertTrue( Math.abs( eating - waiting ) <= TableRaster.STRIP_HEIGHT / 10 );
+        //eating is stacked above waiting
+        assertEquals( Color.ORANGE.getRGB(), screen.getRGB( column, TableRaster.STRIP_TOP ) );
+    }
+
+    public void testZoomKeepsRingOnScreen()
+    {
+        int n = 500;
+        PackedStateStore store = new PackedStateStore( n, StatePhil.WAITING.ordinal(), 0 );
+        store.setState( 0, StatePhil.PHILOSOPHIZING.ordinal() );
+
+        //zoom 4 around the top of the ring
+        double zoom = 4;
+        int middle = ( TableRaster.RING_INNER_RADIUS + TableRaster.RING_OUTER_RADIUS ) / 2;
+        double panX = CENTER - CENTER * zoom;
+        double panY = CENTER - ( CENTER - middle ) * zoom;
+        BufferedImage screen = paint( DetailMode.RING, n, zoom, panX, panY, store );
+        assertEquals( Color.GREEN.getRGB(), screen.getRGB( CENTER, CENTER ) );
+    }
+
+    private static BufferedImage paint( DetailMode mode, int n, double zoom, double panX, double panY, PackedStateStore store )
+    {
+        TableRaster raster = new TableRaster( SIZE, SIZE, CENTER, CENTER, background(), COLORS );
+        raster.layout( mode, n, zoom, panX, panY );
+        BufferedImage screen = new BufferedImage( SIZE, SIZE, BufferedImage.TYPE_INT_RGB );
+        Graphics2D g2 = screen.createGraphics();
+        raster.paint( g2, store );
+        g2.dispose();
+        return screen;
+    }
+
+    private static BufferedImage background()
+    {
+        return new BufferedImage( SIZE, SIZE, BufferedImage.TYPE_INT_RGB );
+    }
+}